@@ -0,0 +1,224 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import net.minecraft.util.MovingObjectPosition;
+import net.minecraft.util.Vec3;
+
+import org.mudraker.Log;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the BlockPlacer placement decisions against a {@link SyntheticWorld}.
+ * <p>Each benchmark calls the real {@link PlaceSession} entry point through a {@link HeadlessSession}
+ * reading the synthetic world, so the side mask comes from the session's own side checks:</p>
+ * <p>establishPlacement - evaluatePlacement after a world change with a forced reinitialise, from
+ * each side hit in turn.<br>
+ * setDefaultPlace - pick the default side after a world change, so the side mask is rebuilt.<br>
+ * adjustPlace, rotatePlace, mouseShiftPlace - step the side from the centre against an unchanged world.<br>
+ * autoRepeatRun - place a run of up to {@link SyntheticWorld#RUN_LENGTH} blocks west from the centre
+ * through placeComplete as hold-to-place does, with each block put into the world before the next step.</p>
+ * <p>The player faces each horizontal direction in turn and looks up, level and down, so every
+ * decision table row is used. Throughput is the JMH score, allocation rate comes from running
+ * with -prof gc, and the lookups and decisions counters give the world reads per decision.</p>
+ *
+ * <p>Pattern: Benchmark</p>
+ *
+ * @author MudRaker
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+
+	/** World reads and decisions made during an iteration */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Counters {
+		public long lookups;
+		public long decisions;
+
+		@Setup(Level.Iteration)
+		public void clean() {
+			lookups = 0;
+			decisions = 0;
+		}
+	}
+
+	/** Player yaw facing south, west, north and east - facings 3, 4, 2 and 5 */
+	private static final float[] YAWS = { 0.0F, 90.0F, 180.0F, 270.0F };
+
+	/** Player pitch looking up, level and down */
+	private static final float[] PITCHES = { -60.0F, 0.0F, 60.0F };
+
+	// Screen directions of the mouse gestures - right, then anticlockwise round to down right
+	private static final int[] GESTURE_DX = { 1, 1, 0, -1, -1, -1, 0, 1 };
+	private static final int[] GESTURE_DY = { 0, 1, 1, 1, 0, -1, -1, -1 };
+
+	@Param({"OPEN", "ENCLOSED", "VINES", "SNOW", "DOOR", "SLABS", "WALL"})
+	public SyntheticWorld.Scenario scenario;
+
+	private SyntheticWorld world;
+	private HeadlessSession session;
+
+	/** Ray trace targets on each side of the centre block */
+	private final MovingObjectPosition[] mops = new MovingObjectPosition[6];
+	private final Coordinate drawPosition = new Coordinate(0, 0, 0);
+
+	/** Mouse gestures in the eight screen directions, twice the threshold long */
+	private final int[] gestureX = new int[8], gestureY = new int[8];
+
+	/** Is the centre block replaceable? */
+	private boolean centreReplaceable;
+
+	/** Cycling input so successive decisions differ */
+	private int step;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Log.init(Logger.getLogger(ModInfo.ID));
+		Log.setLevel(java.util.logging.Level.WARNING);
+		Config config = Config.getInstance();
+		config.placeAutoOff = false;
+		config.placeAutoRpt = true;
+		config.placeAutoEnd = false;
+		config.placeSmartStart = true;
+		config.placeDetectDevices = true;
+
+		world = new SyntheticWorld(scenario);
+		session = new HeadlessSession();
+		session.setBlocks(world);
+
+		int x = Coordinate.unpackX(SyntheticWorld.CENTRE), y = Coordinate.unpackY(SyntheticWorld.CENTRE), z = Coordinate.unpackZ(SyntheticWorld.CENTRE);
+		for (int side = 0; side < 6; side++) {
+			mops[side] = new MovingObjectPosition(x, y, z, side, Vec3.createVectorHelper(x + 0.5, y + 0.5, z + 0.5));
+		}
+		int length = Math.max(config.mouseThreshold, 1) * 2;
+		for (int i = 0; i < 8; i++) {
+			gestureX[i] = GESTURE_DX[i] * length;
+			gestureY[i] = GESTURE_DY[i] * length;
+		}
+		centreReplaceable = world.isReplaceable(x, y, z);
+		session.setPlacement(true, SyntheticWorld.CENTRE, Const.SIDE_TOP, centreReplaceable);
+	}
+
+	@Benchmark
+	public int establishPlacement(Counters counters) {
+		world.resetLookups();
+		view();
+		session.blocksChanged();
+		session.placeReinit = true;
+		Coordinate draw = session.evaluatePlacement(null, null, mops[step % 6], drawPosition);
+		step++;
+		count(counters);
+		return (draw == null) ? -1 : session.getPlaceSide();
+	}
+
+	@Benchmark
+	public int setDefaultPlace(Counters counters) {
+		world.resetLookups();
+		view();
+		session.blocksChanged();
+		int side = session.setDefaultPlace(null, null, step % 6);
+		step++;
+		count(counters);
+		return side;
+	}
+
+	@Benchmark
+	public int adjustPlace(Counters counters) {
+		world.resetLookups();
+		view();
+		fromCentre();
+		session.adjustPlace(null, null, false, (step & 1) == 0);
+		step++;
+		count(counters);
+		return session.getPlaceSide();
+	}
+
+	@Benchmark
+	public int rotatePlace(Counters counters) {
+		world.resetLookups();
+		view();
+		fromCentre();
+		session.rotatePlace(null, null, step & 3);
+		step++;
+		count(counters);
+		return session.getPlaceSide();
+	}
+
+	@Benchmark
+	public int mouseShiftPlace(Counters counters) {
+		world.resetLookups();
+		view();
+		fromCentre();
+		session.mouseShiftPlace(null, null, gestureX[step & 7], gestureY[step & 7]);
+		step++;
+		count(counters);
+		return session.getPlaceSide();
+	}
+
+	@Benchmark
+	public long autoRepeatRun(Counters counters) {
+		world.resetLookups();
+		view();
+		session.setPlacement(true, SyntheticWorld.CENTRE, Const.SIDE_WEST, centreReplaceable);
+		session.blocksChanged();
+		for (int i = 0; i < SyntheticWorld.RUN_LENGTH && !session.placeReinit; i++) {
+			long placePosition = session.getPlacePosition();
+			int effectiveSide = session.findEffectiveReplaceableSide(session.getNeighbourhood(null));
+			world.place(session.isPlaceReplaceable() ? placePosition : Coordinate.adjacent(placePosition, session.getPlaceSide()),
+					SyntheticWorld.STONE);
+			session.blocksChanged();
+			if (!session.didItPlaceABlock(session.getNeighbourhood(null))) break;
+			session.placeComplete(null, null, effectiveSide);
+			counters.decisions++;
+		}
+		world.removePlaced();
+		step++;
+		counters.lookups += world.getLookups();
+		return session.getPlacePosition();
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** Turn the player to the next view */
+	private void view() {
+		session.setView(YAWS[step & 3], PITCHES[step % 3], false);
+	}
+
+	/** Return the place position to the centre, keeping the current side */
+	private void fromCentre() {
+		session.setPlacement(true, SyntheticWorld.CENTRE, session.getPlaceSide(), centreReplaceable);
+	}
+
+	private void count(Counters counters) {
+		counters.lookups += world.getLookups();
+		counters.decisions++;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+/**
+ * Synthetic block world for the BlockPlacer benchmarks.
+ * <p>A small cube of block IDs and metadata held in flat arrays, with everything outside it
+ * air. Each {@link Scenario} builds a layout around {@link #CENTRE} that exercises one of the
+ * awkward placement cases. Every lookup is counted so a benchmark can report how many world
+ * reads each decision needs.</p>
+ * <p>Replaceable blocks follow the vanilla 1.6.4 rules for the IDs used here. Blocks placed by
+ * a benchmark are remembered so the scenario can be put back afterwards.</p>
+ *
+ * <p>Pattern: Reusable Mutable</p>
+ *
+ * @author MudRaker
+ */
+public class SyntheticWorld implements BlockSource {
+
+	// Vanilla block IDs used by the scenarios
+	public static final int AIR = 0;
+	public static final int STONE = 1;
+	public static final int WATER = 9;
+	public static final int TALL_GRASS = 31;
+	public static final int SLAB = 44;
+	public static final int DOOR = 64;
+	public static final int SNOW = 78;
+	public static final int VINE = 106;
+
+	/** Edge length of the stored cube */
+	public static final int SIZE = 32;
+
+	/** Packed position of the centre of the cube - where each scenario puts its target */
+	public static final long CENTRE = Coordinate.pack(SIZE / 2, SIZE / 2, SIZE / 2);
+
+	/** Length of the wall and the most blocks placed by an auto-repeat run */
+	public static final int RUN_LENGTH = 16;
+
+	/** Placement layouts */
+	public enum Scenario {
+		/** Single stone block in open air - every side valid */
+		OPEN,
+		/** Stone block with all 26 neighbours filled - no side valid */
+		ENCLOSED,
+		/** Vine hanging on the side of a stone pillar - replaceable against the pillar side */
+		VINES,
+		/** Single snow layer on a stone floor - replaceable, collapses to the floor */
+		SNOW,
+		/** Wooden door standing on a stone floor - activatable */
+		DOOR,
+		/** Row of bottom slabs on a stone floor */
+		SLABS,
+		/** Long stone wall with tall grass and water along its foot for auto-repeat runs */
+		WALL,
+	}
+
+	// Cube contents indexed by index()
+	private final int[] ids = new int[SIZE * SIZE * SIZE];
+	private final int[] meta = new int[SIZE * SIZE * SIZE];
+
+	// Cube index and previous contents of each block placed since the last removePlaced()
+	private final int[] placedIndex = new int[RUN_LENGTH];
+	private final int[] placedId = new int[RUN_LENGTH];
+	private final int[] placedMeta = new int[RUN_LENGTH];
+	private int placedCount;
+
+	/** World reads since the last {@link #resetLookups} */
+	private long lookups;
+
+	/**
+	 * Build a scenario.
+	 * @param scenario is the layout to build
+	 */
+	public SyntheticWorld(Scenario scenario) {
+		int x = Coordinate.unpackX(CENTRE), y = Coordinate.unpackY(CENTRE), z = Coordinate.unpackZ(CENTRE);
+		switch (scenario) {
+		case OPEN:
+			set(x, y, z, STONE, 0);
+			break;
+		case ENCLOSED:
+			fill(x - 1, y - 1, z - 1, x + 1, y + 1, z + 1, STONE, 0);
+			break;
+		case VINES:
+			fill(x + 1, y - 2, z, x + 1, y + 2, z, STONE, 0);
+			fill(x, y - 2, z, x, y + 2, z, VINE, 2);
+			break;
+		case SNOW:
+			fill(x - 2, y - 1, z - 2, x + 2, y - 1, z + 2, STONE, 0);
+			set(x, y, z, SNOW, 0);
+			break;
+		case DOOR:
+			fill(x - 2, y - 1, z - 2, x + 2, y - 1, z + 2, STONE, 0);
+			set(x, y, z, DOOR, 0);
+			set(x, y + 1, z, DOOR, 8);
+			break;
+		case SLABS:
+			fill(x - 2, y - 1, z - 2, x + 2, y - 1, z + 2, STONE, 0);
+			fill(x - 2, y, z, x + 2, y, z, SLAB, 0);
+			break;
+		case WALL:
+			fill(x, y - 1, z, x + RUN_LENGTH - 1, y + 1, z, STONE, 0);
+			fill(x, y - 1, z - 1, x + RUN_LENGTH - 1, y - 1, z - 1, TALL_GRASS, 1);
+			fill(x, y - 1, z + 1, x + RUN_LENGTH - 1, y - 1, z + 1, WATER, 0);
+			break;
+		}
+	}
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/** @return the number of world reads since the last reset */
+	public long getLookups() {
+		return lookups;
+	}
+
+	/** Restart the world read count */
+	public void resetLookups() {
+		lookups = 0;
+	}
+
+	/**
+	 * Place a block, remembering what was there. Ignored outside the cube or once
+	 * {@link #RUN_LENGTH} blocks have been placed.
+	 * @param pos is the packed block coordinate to place at
+	 * @param id is the block ID to place
+	 */
+	public void place(long pos, int id) {
+		int i = index(Coordinate.unpackX(pos), Coordinate.unpackY(pos), Coordinate.unpackZ(pos));
+		if (i < 0 || placedCount == RUN_LENGTH) return;
+		placedIndex[placedCount] = i;
+		placedId[placedCount] = ids[i];
+		placedMeta[placedCount] = meta[i];
+		placedCount++;
+		ids[i] = id;
+		meta[i] = 0;
+	}
+
+	/** Put back the blocks replaced by {@link #place}, latest first */
+	public void removePlaced() {
+		while (placedCount > 0) {
+			placedCount--;
+			ids[placedIndex[placedCount]] = placedId[placedCount];
+			meta[placedIndex[placedCount]] = placedMeta[placedCount];
+		}
+	}
+
+	// **************************************
+	// BlockSource Implementation
+	// **************************************
+
+	@Override
+	public int getBlockId(int x, int y, int z) {
+		lookups++;
+		int i = index(x, y, z);
+		return (i < 0) ? AIR : ids[i];
+	}
+
+	@Override
+	public int getBlockMetadata(int x, int y, int z) {
+		lookups++;
+		int i = index(x, y, z);
+		return (i < 0) ? 0 : meta[i];
+	}
+
+	@Override
+	public boolean isReplaceable(int x, int y, int z) {
+		lookups++;
+		int i = index(x, y, z);
+		if (i < 0) return false;
+		switch (ids[i]) {
+		case TALL_GRASS:
+		case VINE:
+			return true;
+		case SNOW:
+			return meta[i] < 7;
+		default:
+			return false;
+		}
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** @return the array index of a position or -1 if outside the cube */
+	private int index(int x, int y, int z) {
+		if (x < 0 || x >= SIZE || y < 0 || y >= SIZE || z < 0 || z >= SIZE) return -1;
+		return (y * SIZE + z) * SIZE + x;
+	}
+
+	private void set(int x, int y, int z, int id, int data) {
+		int i = index(x, y, z);
+		ids[i] = id;
+		meta[i] = data;
+	}
+
+	private void fill(int x1, int y1, int z1, int x2, int y2, int z2, int id, int data) {
+		for (int y = y1; y <= y2; y++) {
+			for (int z = z1; z <= z2; z++) {
+				for (int x = x1; x <= x2; x++) {
+					set(x, y, z, id, data);
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.block.Block;
+import net.minecraft.world.World;
+
+/**
+ * BlockPlacer neighbourhood block snapshot.
+ * <p>Holds the block IDs and metadata of the 3x3x3 cube around a centre position in
+ * primitive arrays so the placement checks do not repeat chunk lookups. The snapshot
+ * is refilled only when the centre, source or change stamp differs from the last fill.
+ * Reads outside the cube fall through to the source.</p>
+ * <p>Replaceability is evaluated lazily per cell as it needs the block instance.</p>
+ *
+ * <p>Pattern: Reusable Mutable</p>
+ *
+ * @author MudRaker
+ */
+public class BlockSnapshot implements BlockSource {
+
+	/** Edge length of the snapshot cube */
+	public static final int SIZE = 3;
+
+	/** Distance from the centre to the cube faces */
+	private static final int RADIUS = SIZE / 2;
+
+	/** Number of cells in the snapshot cube */
+	private static final int CELLS = SIZE * SIZE * SIZE;
+
+	// Lazy replaceable cell states
+	private static final byte REPLACEABLE_UNKNOWN = 0;
+	private static final byte REPLACEABLE_NO = 1;
+	private static final byte REPLACEABLE_YES = 2;
+
+	// Cell contents indexed by cellIndex()
+	private final int[] ids = new int[CELLS];
+	private final int[] meta = new int[CELLS];
+	private final byte[] replaceable = new byte[CELLS];
+
+	/** Reusable adapter for reading from the live world */
+	private final WorldSource worldSource = new WorldSource();
+
+	/** The source the snapshot was filled from, or null if never filled */
+	private BlockSource source;
+
+	/** Centre of the snapshot cube */
+	private int centreX, centreY, centreZ;
+
+	/** Change stamp the snapshot was filled at */
+	private long stamp;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Make sure the snapshot reflects the world around the given centre.
+	 * @param world is the world to read
+	 * @param x is the centre X coordinate
+	 * @param y is the centre Y coordinate
+	 * @param z is the centre Z coordinate
+	 * @param changeStamp is a change counter - any new value forces a refill
+	 * @return this snapshot
+	 */
+	public BlockSnapshot refresh(World world, int x, int y, int z, long changeStamp) {
+		if (worldSource.world != world) {
+			worldSource.set(world);
+			source = null; // force refill
+		}
+		return refresh(worldSource, x, y, z, changeStamp);
+	}
+
+	/**
+	 * Make sure the snapshot reflects the given block source around the given centre.
+	 * @param blocks is the block source to read
+	 * @param x is the centre X coordinate
+	 * @param y is the centre Y coordinate
+	 * @param z is the centre Z coordinate
+	 * @param changeStamp is a change counter - any new value forces a refill
+	 * @return this snapshot
+	 */
+	public BlockSnapshot refresh(BlockSource blocks, int x, int y, int z, long changeStamp) {
+		if (blocks != source || changeStamp != stamp || x != centreX || y != centreY || z != centreZ) {
+			source = blocks;
+			stamp = changeStamp;
+			centreX = x;
+			centreY = y;
+			centreZ = z;
+			int cell = 0;
+			for (int dy = -RADIUS; dy <= RADIUS; dy++) {
+				for (int dz = -RADIUS; dz <= RADIUS; dz++) {
+					for (int dx = -RADIUS; dx <= RADIUS; dx++) {
+						ids[cell] = blocks.getBlockId(x + dx, y + dy, z + dz);
+						meta[cell] = blocks.getBlockMetadata(x + dx, y + dy, z + dz);
+						replaceable[cell] = REPLACEABLE_UNKNOWN;
+						cell++;
+					}
+				}
+			}
+		}
+		return this;
+	}
+
+	// **************************************
+	// BlockSource Implementation
+	// **************************************
+
+	@Override
+	public int getBlockId(int x, int y, int z) {
+		int cell = cellIndex(x, y, z);
+		return (cell < 0) ? source.getBlockId(x, y, z) : ids[cell];
+	}
+
+	@Override
+	public int getBlockMetadata(int x, int y, int z) {
+		int cell = cellIndex(x, y, z);
+		return (cell < 0) ? source.getBlockMetadata(x, y, z) : meta[cell];
+	}
+
+	@Override
+	public boolean isReplaceable(int x, int y, int z) {
+		int cell = cellIndex(x, y, z);
+		if (cell < 0) return source.isReplaceable(x, y, z);
+		if (replaceable[cell] == REPLACEABLE_UNKNOWN) {
+			replaceable[cell] = source.isReplaceable(x, y, z) ? REPLACEABLE_YES : REPLACEABLE_NO;
+		}
+		return (replaceable[cell] == REPLACEABLE_YES);
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** @return the cell index of a world position or -1 if outside the snapshot cube */
+	private int cellIndex(int x, int y, int z) {
+		int dx = x - centreX + RADIUS;
+		int dy = y - centreY + RADIUS;
+		int dz = z - centreZ + RADIUS;
+		if (dx < 0 || dx >= SIZE || dy < 0 || dy >= SIZE || dz < 0 || dz >= SIZE) return -1;
+		return (dy * SIZE + dz) * SIZE + dx;
+	}
+
+	/**
+	 * Adapts the live {@link World} to a {@link BlockSource} without any caching.
+	 */
+	static class WorldSource implements BlockSource {
+		private World world;
+
+		/**
+		 * @param world is the world to read
+		 * @return this source
+		 */
+		WorldSource set(World world) {
+			this.world = world;
+			return this;
+		}
+
+		@Override
+		public int getBlockId(int x, int y, int z) {
+			return world.getBlockId(x, y, z);
+		}
+
+		@Override
+		public int getBlockMetadata(int x, int y, int z) {
+			return world.getBlockMetadata(x, y, z);
+		}
+
+		@Override
+		public boolean isReplaceable(int x, int y, int z) {
+			int blockId = world.getBlockId(x, y, z);
+			if (!CapabilityIndex.mayBeReplaceable(blockId) || CapabilityIndex.isLiquid(blockId)) return false;
+			Block block = Block.blocksList[blockId];
+			return (block != null && block.isBlockReplaceable(world, x, y, z));
+		}
+	}
+}
\ No newline at end of file
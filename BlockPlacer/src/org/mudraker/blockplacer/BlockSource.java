@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+/**
+ * Minimal read-only block access used by the BlockPlacer placement checks.
+ * <p>Implemented by {@link BlockSnapshot} for the live world, and can be implemented
+ * by a synthetic world so the placement checks can run without Minecraft.</p>
+ *
+ * <p>Pattern: Interface</p>
+ *
+ * @author MudRaker
+ */
+public interface BlockSource {
+	/**
+	 * @param x is the integer world X coordinate
+	 * @param y is the integer world Y coordinate
+	 * @param z is the integer world Z coordinate
+	 * @return the block ID at the location (0 is air)
+	 */
+	public int getBlockId(int x, int y, int z);
+
+	/**
+	 * @param x is the integer world X coordinate
+	 * @param y is the integer world Y coordinate
+	 * @param z is the integer world Z coordinate
+	 * @return the block metadata at the location
+	 */
+	public int getBlockMetadata(int x, int y, int z);
+
+	/**
+	 * @param x is the integer world X coordinate
+	 * @param y is the integer world Y coordinate
+	 * @param z is the integer world Z coordinate
+	 * @return true if the location holds a non-liquid block that can be replaced by placing a block
+	 */
+	public boolean isReplaceable(int x, int y, int z);
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Vec3;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.common.network.NetworkRegistry;
+import cpw.mods.fml.common.network.PacketDispatcher;
+import cpw.mods.fml.common.network.Player;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer client side bulk placement sender.
+ * <p>When the server has the {@link PlaceChannel} active and {@link Config#placeBulkChannel} is on,
+ * placements are made in the client world straight away and collected here instead of each being
+ * sent as a vanilla place packet. The collected placements are sent as one batch at the end of the
+ * client tick (or sooner if the batch fills up).</p>
+ * <p>The placed positions of each batch are kept until its acknowledgement arrives, which then
+ * confirms or rolls back each placement in the {@link PlacementLedger}.</p>
+ *
+ * <p>Pattern: Singleton</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class BulkSender implements PlaceChannel.AckHandler {
+	// Singleton instance enforcement
+	private final static BulkSender instance = new BulkSender(); // Singleton instance
+	public static BulkSender getInstance() { return instance; } // Return singleton for access
+	private BulkSender() {} // Singleton: Prevent additional instantiation
+
+	/** Maximum batches awaiting acknowledgement (power of 2) */
+	private static final int OUTSTANDING = 8;
+
+	private static final int MAX_BATCH = PlaceChannel.MAX_BATCH;
+
+	// Batch being collected
+	private final long[] positions = new long[MAX_BATCH];
+	private final byte[] sides = new byte[MAX_BATCH];
+	private final byte[] hits = new byte[MAX_BATCH * 3];
+	private final long[] placed = new long[MAX_BATCH];
+	private int count = 0;
+	private int sequence = 0;
+
+	// Placed positions of the batches awaiting acknowledgement, indexed by sequence
+	private final long[][] outstanding = new long[OUTSTANDING][MAX_BATCH];
+	private final int[] outstandingSequence = new int[OUTSTANDING];
+	private final int[] outstandingCount = new int[OUTSTANDING];
+
+	// Statistics
+	private long batchCount = 0;
+	private long sentCount = 0;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * @param mc is the Minecraft instance
+	 * @return true if placements should be sent in batches
+	 */
+	public boolean isActive(Minecraft mc) {
+		return Config.getInstance().placeBulkChannel && mc.thePlayer != null
+				&& NetworkRegistry.instance().isChannelActive(PlaceChannel.CHANNEL, (Player) mc.thePlayer);
+	}
+
+	/**
+	 * Make a placement in the client world and add it to the batch.
+	 * @param mc is the Minecraft instance
+	 * @param entityPlayer is the player placing
+	 * @param position is the packed position to place against
+	 * @param side is the side to place on
+	 * @param placedPosition is the packed position the block will occupy
+	 * @param hitVec is the ray trace hit vector
+	 * @return true if the block was placed in the client world
+	 */
+	public boolean place(Minecraft mc, EntityPlayer entityPlayer, long position, int side, long placedPosition, Vec3 hitVec) {
+		ItemStack itemStack = entityPlayer.getHeldItem();
+		if (itemStack == null) return false;
+		int x = Coordinate.unpackX(position);
+		int y = Coordinate.unpackY(position);
+		int z = Coordinate.unpackZ(position);
+		float hitX = (float) hitVec.xCoord - x;
+		float hitY = (float) hitVec.yCoord - y;
+		float hitZ = (float) hitVec.zCoord - z;
+		int stackSize = itemStack.stackSize;
+		if (!itemStack.tryPlaceItemIntoWorld(entityPlayer, mc.theWorld, x, y, z, side, hitX, hitY, hitZ)) {
+			return false;
+		}
+		if (mc.playerController.isInCreativeMode()) {
+			itemStack.stackSize = stackSize;
+		} else if (itemStack.stackSize <= 0) {
+			entityPlayer.inventory.mainInventory[entityPlayer.inventory.currentItem] = null;
+		}
+
+		positions[count] = position;
+		sides[count] = (byte) side;
+		hits[count * 3] = (byte) (hitX * 16.0F);
+		hits[count * 3 + 1] = (byte) (hitY * 16.0F);
+		hits[count * 3 + 2] = (byte) (hitZ * 16.0F);
+		placed[count] = placedPosition;
+		if (++count == MAX_BATCH) flush();
+		return true;
+	}
+
+	/** Send the batch collected, if any. Called at the end of every client tick. */
+	public void flush() {
+		if (count == 0) return;
+		int slot = sequence & (OUTSTANDING - 1);
+		if (outstandingCount[slot] > 0) {
+			Log.fine("BulkSender batch " + outstandingSequence[slot] + " not acknowledged - left to the ledger");
+		}
+		System.arraycopy(placed, 0, outstanding[slot], 0, count);
+		outstandingSequence[slot] = sequence;
+		outstandingCount[slot] = count;
+		PacketDispatcher.sendPacketToServer(PlaceChannel.batchPacket(sequence, positions, sides, hits, count));
+		Log.finer("BulkSender sent batch " + sequence + " of " + count);
+		batchCount++;
+		sentCount += count;
+		sequence++;
+		count = 0;
+	}
+
+	/**
+	 * Confirm or roll back each placement of an acknowledged batch.
+	 * @see org.mudraker.blockplacer.PlaceChannel.AckHandler#onAck(int, int, long)
+	 */
+	@Override
+	public void onAck(int ackSequence, int ackCount, long placedMask) {
+		int slot = ackSequence & (OUTSTANDING - 1);
+		if (outstandingSequence[slot] != ackSequence || outstandingCount[slot] != ackCount) {
+			Log.fine("BulkSender ignoring stale acknowledgement " + ackSequence);
+			return;
+		}
+		PlacementLedger ledger = PlacementLedger.getInstance();
+		for (int n = 0; n < ackCount; n++) {
+			ledger.acknowledge(outstanding[slot][n], (placedMask & (1L << n)) != 0);
+		}
+		outstandingCount[slot] = 0;
+	}
+
+	/** @return the number of batches sent since start up */
+	public long getBatchCount() {
+		return batchCount;
+	}
+
+	/** @return the number of placements sent in batches since start up */
+	public long getSentCount() {
+		return sentCount;
+	}
+}
\ No newline at end of file
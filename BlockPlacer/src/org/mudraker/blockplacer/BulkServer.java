@@ -0,0 +1,266 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.minecraft.block.Block;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.item.ItemBlock;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.packet.Packet53BlockChange;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.World;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.common.FMLCommonHandler;
+import cpw.mods.fml.common.ITickHandler;
+import cpw.mods.fml.common.TickType;
+import cpw.mods.fml.common.network.PacketDispatcher;
+import cpw.mods.fml.common.network.Player;
+
+/**
+ * BlockPlacer server side bulk placement handler.
+ * <p>Applies batches of placements received on the {@link PlaceChannel}. Batches are queued on the
+ * sending player's {@link PlaceSession} as they arrive, up to {@link #MAX_QUEUED} per player, and
+ * worked through at the end of each server tick until {@link #TICK_BUDGET_NANOS} has been used, so
+ * a large batch is spread over several ticks rather than stalling the server. Players take turns
+ * one placement at a time, and each tick starts with the next player in turn, so one player's
+ * batches cannot hold up another's.
+ * Each placement is validated as the vanilla place packet would be - reach, world edit and spawn
+ * protection checks - and against the held item through the player's session side hook
+ * ({@link PlaceSession#canPlaceOnSide}) before being made through the player's item in world
+ * manager. Once every placement in a batch has been tried a single acknowledgement is sent back to
+ * the client.</p>
+ * <p>The server does not run the placement solver - the client still chooses each position and
+ * side, and the server only validates and applies them.</p>
+ * <p>A placement only counts as made if the held block is then found where it would have been
+ * placed, as a block that was activated instead also reports success. Placements that fail have
+ * the affected blocks resent to the client so that any prediction it made is corrected.</p>
+ *
+ * <p>Pattern: Singleton Tick Handler</p>
+ *
+ * @author MudRaker
+ */
+public class BulkServer implements ITickHandler {
+	// Singleton instance enforcement
+	private final static BulkServer instance = new BulkServer(); // Singleton instance
+	public static BulkServer getInstance() { return instance; } // Return singleton for access
+	private BulkServer() {} // Singleton: Prevent additional instantiation
+
+	/** Server time per tick that may be spent placing (the whole tick is 50ms) */
+	public static final long TICK_BUDGET_NANOS = 5000000L;
+
+	/** Maximum batches waiting per player - further batches are rejected outright */
+	public static final int MAX_QUEUED = 64;
+
+	/** Square of the maximum distance from the player to a place position, as vanilla */
+	private static final double MAX_REACH_SQ = 64.0D;
+
+	/** Only process server loop ticks */
+	private static final EnumSet<TickType> tickTypes = EnumSet.of(TickType.SERVER);
+
+	/** A batch received from a player and how far it has got */
+	static class Batch {
+		final EntityPlayerMP player;
+		final int sequence;
+		final long[] positions;
+		final byte[] sides;
+		final byte[] hits;
+		final int count;
+		int next = 0;
+		long placedMask = 0L;
+
+		Batch(EntityPlayerMP player, int sequence, long[] positions, byte[] sides, byte[] hits, int count) {
+			this.player = player;
+			this.sequence = sequence;
+			this.positions = positions;
+			this.sides = sides;
+			this.hits = hits;
+			this.count = count;
+		}
+	}
+
+	/** Sessions with batches waiting in the current tick, in turn order - reused each tick */
+	private final ArrayList<PlaceSession> active = new ArrayList<PlaceSession>();
+
+	/** Turn counter - each tick starts its first round one session further on */
+	private int turn = 0;
+
+	// Statistics - read from the client thread when the server is integrated
+	private final AtomicLong placedCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Queue a batch of placements received from a player.
+	 * @param player is the player that sent the batch
+	 * @param sequence is the batch sequence number
+	 * @param positions are the packed positions to place against
+	 * @param sides are the sides to place on
+	 * @param hits are the hit offsets in 16ths - 3 per placement
+	 * @param count is the number of placements
+	 */
+	public void queue(EntityPlayerMP player, int sequence, long[] positions, byte[] sides, byte[] hits, int count) {
+		PlaceSession session = PlaceSession.forPlayer(player);
+		if (session.batches.size() >= MAX_QUEUED) {
+			Log.fine("BulkServer queue full - rejecting batch " + sequence + " from " + player.username);
+			rejectedCount.addAndGet(count);
+			PacketDispatcher.sendPacketToPlayer(PlaceChannel.ackPacket(sequence, count, 0L), (Player) player);
+			return;
+		}
+		session.batches.add(new Batch(player, sequence, positions, sides, hits, count));
+	}
+
+	/** @return the number of bulk placements made since start up */
+	public long getPlacedCount() {
+		return placedCount.get();
+	}
+
+	/** @return the number of bulk placements rejected since start up */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/** Null method - all work is done at the end of the tick */
+	@Override
+	public void tickStart(EnumSet<TickType> type, Object... tickData) {}
+
+	/**
+	 * Work through the batches queued on the sessions until the tick budget is used up, making one
+	 * placement for each session in turn. At least one placement is made every tick so that
+	 * progress is always made.
+	 * @see cpw.mods.fml.common.ITickHandler#tickEnd(java.util.EnumSet, java.lang.Object[])
+	 */
+	@Override
+	public void tickEnd(EnumSet<TickType> type, Object... tickData) {
+		active.clear();
+		for (PlaceSession session : PlaceSession.getSessions()) {
+			if (!session.batches.isEmpty()) active.add(session);
+		}
+		int sessions = active.size();
+		if (sessions == 0) return;
+
+		long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+		int start = (turn++ & Integer.MAX_VALUE) % sessions;
+		int waiting = sessions;
+		boolean first = true;
+		while (waiting > 0) {
+			for (int n = 0; n < sessions; n++) {
+				int index = (start + n) % sessions;
+				PlaceSession session = active.get(index);
+				if (session == null) continue;
+				if (!first && System.nanoTime() >= deadline) return; // resume next tick
+				first = false;
+				if (!placeNext(session)) {
+					active.set(index, null);
+					waiting--;
+				}
+			}
+		}
+		active.clear();
+	}
+
+	@Override
+	public EnumSet<TickType> ticks() {
+		return tickTypes;
+	}
+
+	@Override
+	public String getLabel() {
+		return "BlockPlacer.BulkServer";
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/**
+	 * Make the next placement queued on a session, acknowledging its batch once the batch is done.
+	 * Batches of players that have died are dropped as there is nothing to acknowledge.
+	 * @param session is the session
+	 * @return true if a placement was tried, or false if the session has nothing left to place
+	 */
+	private boolean placeNext(PlaceSession session) {
+		Batch batch;
+		while ((batch = session.batches.peek()) != null && batch.player.isDead) {
+			session.batches.poll();
+		}
+		if (batch == null) return false;
+
+		if (place(session, batch.player, batch.positions[batch.next], batch.sides[batch.next], batch.hits, batch.next * 3)) {
+			batch.placedMask |= 1L << batch.next;
+			placedCount.incrementAndGet();
+		} else {
+			rejectedCount.incrementAndGet();
+		}
+		if (++batch.next == batch.count) {
+			session.batches.poll();
+			if (batch.player.openContainer != null) batch.player.openContainer.detectAndSendChanges();
+			PacketDispatcher.sendPacketToPlayer(PlaceChannel.ackPacket(batch.sequence, batch.count, batch.placedMask),
+					(Player) batch.player);
+		}
+		return true;
+	}
+
+	/**
+	 * Validate and make a single placement, resending the affected blocks if it fails.
+	 * @param session is the placing player's session
+	 * @param player is the player placing
+	 * @param position is the packed position to place against
+	 * @param side is the side to place on
+	 * @param hits are the hit offsets in 16ths
+	 * @param hit is the index of the first hit offset for this placement
+	 * @return true if the held block was placed
+	 */
+	private boolean place(PlaceSession session, EntityPlayerMP player, long position, int side, byte[] hits, int hit) {
+		World theWorld = player.worldObj;
+		int x = Coordinate.unpackX(position);
+		int y = Coordinate.unpackY(position);
+		int z = Coordinate.unpackZ(position);
+		if (side < 0 || side > 5 || !theWorld.blockExists(x, y, z)) return false;
+
+		boolean placed = false;
+		long target = Coordinate.adjacent(position, side);
+		ItemStack itemStack = player.inventory.getCurrentItem();
+		MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+		if (itemStack != null && itemStack.getItem() instanceof ItemBlock
+				&& player.getDistanceSq(x + 0.5D, y + 0.5D, z + 0.5D) < MAX_REACH_SQ
+				&& player.canPlayerEdit(x, y, z, side, itemStack)
+				&& (server == null || !server.isBlockProtected(theWorld, x, y, z, player))
+				&& session.canPlaceOnSide(theWorld, player, position, side)) {
+			// As ItemBlock.onItemUse - a replaceable block is placed into rather than against
+			Block block = Block.blocksList[theWorld.getBlockId(x, y, z)];
+			long placePosition = (block != null && block.isBlockReplaceable(theWorld, x, y, z)) ? position : target;
+			int placeId = ((ItemBlock) itemStack.getItem()).getBlockID();
+
+			// Activating the block rather than placing on it also returns true, so check what is there now
+			placed = player.theItemInWorldManager.activateBlockOrUseItem(player, theWorld, itemStack, x, y, z, side,
+					hits[hit] / 16.0F, hits[hit + 1] / 16.0F, hits[hit + 2] / 16.0F)
+					&& theWorld.getBlockId(Coordinate.unpackX(placePosition), Coordinate.unpackY(placePosition),
+							Coordinate.unpackZ(placePosition)) == placeId;
+			if (itemStack.stackSize <= 0) {
+				player.inventory.mainInventory[player.inventory.currentItem] = null;
+			}
+		}
+
+		if (!placed) {
+			// Correct the client's prediction
+			player.playerNetServerHandler.sendPacketToPlayer(new Packet53BlockChange(x, y, z, theWorld));
+			player.playerNetServerHandler.sendPacketToPlayer(new Packet53BlockChange(Coordinate.unpackX(target),
+					Coordinate.unpackY(target), Coordinate.unpackZ(target), theWorld));
+		}
+		return placed;
+	}
+}
\ No newline at end of file
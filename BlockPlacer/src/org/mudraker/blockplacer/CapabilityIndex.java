@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.minecraft.block.Block;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
+import net.minecraft.world.World;
+
+import org.mudraker.Log;
+
+/**
+ * BlockPlacer block and item capability index.
+ * <p>Records what each block and item ID can do in primitive flag tables indexed by ID, so
+ * placement checks are a single array read. The tables are built once at post-initialisation
+ * by scanning {@link Block#blocksList} and {@link Item#itemsList} in parallel ranges. IDs
+ * registered after the scan are classified lazily on first use.</p>
+ * <p>Block flags: ACTIVATABLE if the block overrides onBlockActivated, REPLACEABLE if the block
+ * might be replaceable (its material is, or it overrides isBlockReplaceable) and LIQUID.
+ * Item flags: MULTIPART if the item class is in a '.multipart.' package.</p>
+ *
+ * <p>Pattern: Static Mutable</p>
+ *
+ * @author MudRaker
+ */
+public class CapabilityIndex {
+	private CapabilityIndex() {} // Static: Prevent instantiation
+
+	// Capability flags
+	public static final byte ACTIVATABLE = 0x01;
+	public static final byte REPLACEABLE = 0x02;
+	public static final byte LIQUID = 0x04;
+	public static final byte MULTIPART = 0x08;
+
+	/** Set once a registered ID has been classified, even if it has no capabilities */
+	private static final byte SCANNED = 0x40;
+
+	/** IDs per parallel scan task */
+	private static final int SCAN_RANGE = 1024;
+
+	/** Parameter types of Block.onBlockActivated */
+	private static final Class<?>[] ACTIVATE_PARMS = new Class<?>[] {World.class, int.class, int.class, int.class,
+			EntityPlayer.class, int.class, float.class, float.class, float.class};
+
+	/** Parameter types of Block.isBlockReplaceable */
+	private static final Class<?>[] REPLACEABLE_PARMS = new Class<?>[] {World.class, int.class, int.class, int.class};
+
+	// Flag tables indexed by ID
+	private static final byte[] blockFlags = new byte[Block.blocksList.length];
+	private static final byte[] itemFlags = new byte[Item.itemsList.length];
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Classify every registered block and item.
+	 * Called once from post-initialisation when all mods have registered their IDs.
+	 */
+	public static void build() {
+		long start = System.currentTimeMillis();
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> tasks = new ArrayList<Future<?>>();
+		try {
+			for (int first = 0; first < blockFlags.length; first += SCAN_RANGE) {
+				tasks.add(executor.submit(new ScanTask(true, first, Math.min(first + SCAN_RANGE, blockFlags.length))));
+			}
+			for (int first = 0; first < itemFlags.length; first += SCAN_RANGE) {
+				tasks.add(executor.submit(new ScanTask(false, first, Math.min(first + SCAN_RANGE, itemFlags.length))));
+			}
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} catch (InterruptedException e) {
+			Log.warn("CapabilityIndex: Scan interrupted - remaining IDs will be classified on use");
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			Log.warn("CapabilityIndex: Scan failed - remaining IDs will be classified on use: " + e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+		Log.fine("CapabilityIndex: Scanned " + blockFlags.length + " block and " + itemFlags.length
+				+ " item IDs using " + threads + " threads in " + (System.currentTimeMillis() - start) + "ms");
+	}
+
+	/**
+	 * @param blockId is the block ID
+	 * @return true if the block could activate, or false if it definitely can't
+	 */
+	public static boolean canActivate(int blockId) {
+		return (getBlockFlags(blockId) & ACTIVATABLE) != 0;
+	}
+
+	/**
+	 * @param blockId is the block ID
+	 * @return true if the block might be replaceable and must be asked, or false if it definitely isn't
+	 */
+	public static boolean mayBeReplaceable(int blockId) {
+		return (getBlockFlags(blockId) & REPLACEABLE) != 0;
+	}
+
+	/**
+	 * @param blockId is the block ID
+	 * @return true if the block is a liquid
+	 */
+	public static boolean isLiquid(int blockId) {
+		return (getBlockFlags(blockId) & LIQUID) != 0;
+	}
+
+	/**
+	 * @param itemId is the item ID
+	 * @return true if the item is a forge multipart item
+	 */
+	public static boolean isMultipart(int itemId) {
+		return (getItemFlags(itemId) & MULTIPART) != 0;
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** @return the block flags, classifying the block first if it has not been scanned */
+	private static int getBlockFlags(int blockId) {
+		if (blockId < 0 || blockId >= blockFlags.length) return 0;
+		byte flags = blockFlags[blockId];
+		if (flags == 0) {
+			flags = blockFlags[blockId] = classifyBlock(Block.blocksList[blockId]);
+		}
+		return flags;
+	}
+
+	/** @return the item flags, classifying the item first if it has not been scanned */
+	private static int getItemFlags(int itemId) {
+		if (itemId < 0 || itemId >= itemFlags.length) return 0;
+		byte flags = itemFlags[itemId];
+		if (flags == 0) {
+			flags = itemFlags[itemId] = classifyItem(Item.itemsList[itemId]);
+		}
+		return flags;
+	}
+
+	/**
+	 * Classify a block. Uses reflection to detect if the block overrides the base {@link Block}
+	 * methods for onBlockActivated and isBlockReplaceable.
+	 * @param block is the block or null for an unused ID
+	 * @return the block flags, or 0 for an unused ID so it is classified again if registered later
+	 * @@MCVERSION 164
+	 */
+	private static byte classifyBlock(Block block) {
+		if (block == null) return 0;
+		int flags = SCANNED;
+		if (block.blockMaterial.isLiquid()) flags |= LIQUID;
+		if (block.blockMaterial.isReplaceable() || overrides(block.getClass(), REPLACEABLE_PARMS, "isBlockReplaceable"))
+			flags |= REPLACEABLE;
+		if (overrides(block.getClass(), ACTIVATE_PARMS, "func_71903_a", "onBlockActivated"))
+			flags |= ACTIVATABLE;
+		return (byte) flags;
+	}
+
+	/**
+	 * Classify an item. Searches the class hierarchy for a class name containing ".multipart.".
+	 * @param item is the item or null for an unused ID
+	 * @return the item flags, or 0 for an unused ID so it is classified again if registered later
+	 * @@MCVERSION 164
+	 */
+	private static byte classifyItem(Item item) {
+		if (item == null) return 0;
+		for (Class<?> cls = item.getClass(); cls != null; cls = cls.getSuperclass()) {
+			if (cls.getName().toLowerCase().contains(".multipart.")) {
+				Log.finer("CapabilityIndex: Item(" + item.itemID + ") multipart class <" + cls.getName() + ">");
+				return SCANNED | MULTIPART;
+			}
+		}
+		return SCANNED;
+	}
+
+	/**
+	 * Check if a block class overrides a base {@link Block} method.
+	 * @param cls is the block class
+	 * @param parms is the method parameter types
+	 * @param names is the method names to try in order (obfuscated first)
+	 * @return true if the method is declared by a subclass of Block
+	 */
+	private static boolean overrides(Class<?> cls, Class<?>[] parms, String... names) {
+		for (String name : names) {
+			try {
+				Method method = cls.getMethod(name, parms);
+				return !(method.getDeclaringClass().equals(Block.class));
+			} catch (NoSuchMethodException e) {
+				// try next name
+			} catch (SecurityException e) {
+				Log.warn("CapabilityIndex: Security exception on " + cls.getName() + "." + name);
+				return false;
+			}
+		}
+		Log.warn("CapabilityIndex: No such method " + names[names.length - 1] + " on " + cls.getName());
+		return false;
+	}
+
+	/**
+	 * Classifies one range of block or item IDs. Each task writes only its own range.
+	 */
+	private static class ScanTask implements Runnable {
+		private final boolean blocks;
+		private final int first, last;
+
+		ScanTask(boolean blocks, int first, int last) {
+			this.blocks = blocks;
+			this.first = first;
+			this.last = last;
+		}
+
+		@Override
+		public void run() {
+			for (int id = first; id < last; id++) {
+				if (blocks) {
+					blockFlags[id] = classifyBlock(Block.blocksList[id]);
+				} else {
+					itemFlags[id] = classifyItem(Item.itemsList[id]);
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -1,67 +1,223 @@
-/**
- * Copyright (C) 2014  MudRaker
- * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as 
- * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
- * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
- * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
- */
-package org.mudraker.blockplacer;
-
-import java.util.List;
-
-import net.minecraft.command.ICommandSender;
-
-import org.mudraker.ClientCommandMain;
-
-import cpw.mods.fml.relauncher.Side;
-import cpw.mods.fml.relauncher.SideOnly;
-
-/**
- * BlockPlacer Command Handler
- * <p>Provides /mrbp command for debugging purposes></p>
- * <p>Pattern: Singleton Registered Handler</p>
- * 
- * @author MudRaker
- */
-@SideOnly(Side.CLIENT)
-public class Command extends ClientCommandMain {
-	
-	// ****************************************************************
-	// Singleton Constructors 
-	// ****************************************************************
-	private final static Command instance = new Command(); // Singleton instance
-	public static Command getInstance() { return instance; } // Return singleton for access
-	
-	/** Singleton constructor */ 
-	@SideOnly(Side.CLIENT)
-	private Command() {
-		super (ModInfo.ID, ModInfo.SHORT_NAME, "mrbp", Config.getInstance());
-	} 
-	
-	// ****************************************************************
-	// Interface Overrides
-	// Only required if want to extend the commands involved
-	// ****************************************************************
-	/**
-	 * Processes the MRBP command options:
-	 * Standard logging and config commands from superclass
-	 * @param sender is the command sender
-	 * @param aString is the string array of the parameters
-	 */
-	@Override
-	@SideOnly(Side.CLIENT)
-	public void processClientCommand(ICommandSender sender, String[] aString) {
-		super.processClientCommand (sender, aString);
-	}
-	
-	/**
-	 * @param sender is the command sender
-	 * @param aString is the array of command words
-	 * @returns a List of all words that are candidate completion options for the last word
-	 */
-	@Override
-	@SideOnly(Side.CLIENT)
-	public List addTabCompletionOptions(ICommandSender sender, String[] aString) {
-		return super.addTabCompletionOptions(sender, aString);
-	}
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+
+import org.mudraker.ClientCommandMain;
+import org.mudraker.Lang;
+import org.mudraker.Util;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer Command Handler
+ * <p>Provides /mrbp command for debugging purposes></p>
+ * <p>Pattern: Singleton Registered Handler</p>
+ * 
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class Command extends ClientCommandMain {
+	
+	// ****************************************************************
+	// Singleton Constructors 
+	// ****************************************************************
+	private final static Command instance = new Command(); // Singleton instance
+	public static Command getInstance() { return instance; } // Return singleton for access
+	
+	/** Singleton constructor */ 
+	@SideOnly(Side.CLIENT)
+	private Command() {
+		super (ModInfo.ID, ModInfo.SHORT_NAME, "mrbp", Config.getInstance());
+	} 
+	
+	// ****************************************************************
+	// Interface Overrides
+	// Only required if want to extend the commands involved
+	// ****************************************************************
+	/**
+	 * Processes the MRBP command options:
+	 * <p>STATS - shows hold-to-place pacing and placement confirmation statistics</p>
+	 * <p>SHAPE [SINGLE | LINE | WALL | FLOOR | BOX] [SIZE] | SHAPE STOP - sets the shape placed by each click
+	 * or stops the shape being placed, or shows the shape status</p>
+	 * <p>MIRROR [OFF | X | Y | Z | XY | XZ | YZ | XYZ] | MIRROR ORIGIN - sets the axes placements are
+	 * mirrored on or moves the mirror origin to the block the current placement would fill, or shows
+	 * the mirror status</p>
+	 * <p>STAMP NAME | STAMP STOP - starts placing the stamp file stamps/NAME.stamp at the current
+	 * placement or stops placing it, or shows the stamp progress</p>
+	 * <p>TRACE [START | STOP] - starts or stops capturing a placement trace, or shows its status</p>
+	 * <p>UNDO [N] | UNDO STOP - breaks the last N (default 1) placements newest first, or stops undoing</p>
+	 * Standard logging and config commands from superclass
+	 * @param sender is the command sender
+	 * @param aString is the string array of the parameters
+	 */
+	@Override
+	@SideOnly(Side.CLIENT)
+	public void processClientCommand(ICommandSender sender, String[] aString) {
+		// STATS
+		if (aString.length > 0 && aString[0].equalsIgnoreCase("stats")) {
+			Config config = Config.getInstance();
+			PlaceEngine engine = PlaceEngine.getInstance();
+			PlacementLedger ledger = PlacementLedger.getInstance();
+			outputMsg (sender, Lang.getMsgParams (modPrefix, "stats.engine", modName, engine.getIssuedCount(),
+					engine.getThrottledCount(), config.placeHoldInterval, config.placeMaxPending));
+			outputMsg (sender, Lang.getMsgParams (modPrefix, "stats.ledger", modName, ledger.getPendingCount(),
+					ledger.getAwaitingCount(), ledger.getConfirmedCount(), ledger.getRolledBackCount()));
+			outputMsg (sender, Lang.getMsgParams (modPrefix, "stats.bulk", modName,
+					(BulkSender.getInstance().isActive(Minecraft.getMinecraft()) ? "on" : "off"),
+					BulkSender.getInstance().getBatchCount(), BulkSender.getInstance().getSentCount()));
+			outputMsg (sender, Lang.getMsgParams (modPrefix, "stats.frame", modName, FrameBudget.getInstance().getLevel(),
+					FrameBudget.getInstance().getAverageMicros(), config.frameBudget));
+			
+		// SHAPE
+		} else if (aString.length > 0 && aString[0].equalsIgnoreCase("shape")) {
+			Config config = Config.getInstance();
+			PlaceEngine engine = PlaceEngine.getInstance();
+			if (aString.length == 2 && aString[1].equalsIgnoreCase("stop")) {
+				engine.cancelShape();
+			} else if (aString.length == 2 || aString.length == 3) {
+				outputMsg (sender, doSetCfgField (sender, new String[] {"set", "placeShape", aString[1]}));
+				if (aString.length == 3) {
+					outputMsg (sender, doSetCfgField (sender, new String[] {"set", "placeShapeSize", aString[2]}));
+				}
+			} else if (aString.length != 1) {
+				throw new WrongUsageException (Lang.getCommandUsage(modPrefix, "mrbp", "shape"), new Object[] {commandName});
+			}
+			outputMsg (sender, Lang.getMsgParams (modPrefix, "shape.status", modName, config.placeShape,
+					config.placeShapeSize, engine.getShapeRemaining()));
+
+		// MIRROR
+		} else if (aString.length > 0 && aString[0].equalsIgnoreCase("mirror")) {
+			Config config = Config.getInstance();
+			if (aString.length == 2 && aString[1].equalsIgnoreCase("origin")) {
+				if (!BlockPlacer.isPlaceEnabled() || !Event.getInstance().isDrawValid()) {
+					throw new WrongUsageException (Lang.getCommandUsage(modPrefix, "mrbp", "mirror.origin"), new Object[] {commandName});
+				}
+				long position = BlockPlacer.getPlacePosition();
+				long origin = BlockPlacer.isPlaceReplaceable() ? position : Coordinate.adjacent(position, BlockPlacer.getPlaceSide());
+				// Set and save through the config field path - the status below reports the new origin
+				doSetCfgField (sender, new String[] {"set", "mirrorOriginX", Integer.toString(Coordinate.unpackX(origin))});
+				doSetCfgField (sender, new String[] {"set", "mirrorOriginY", Integer.toString(Coordinate.unpackY(origin))});
+				doSetCfgField (sender, new String[] {"set", "mirrorOriginZ", Integer.toString(Coordinate.unpackZ(origin))});
+			} else if (aString.length == 2) {
+				outputMsg (sender, doSetCfgField (sender, new String[] {"set", "placeMirror", aString[1]}));
+			} else if (aString.length != 1) {
+				throw new WrongUsageException (Lang.getCommandUsage(modPrefix, "mrbp", "mirror"), new Object[] {commandName});
+			}
+			outputMsg (sender, Lang.getMsgParams (modPrefix, "mirror.status", modName, config.placeMirror,
+					Coordinate.format(Coordinate.pack(config.mirrorOriginX, config.mirrorOriginY, config.mirrorOriginZ))));
+
+		// STAMP
+		} else if (aString.length > 0 && aString[0].equalsIgnoreCase("stamp")) {
+			StampPlacer stamper = StampPlacer.getInstance();
+			if (aString.length == 2 && aString[1].equalsIgnoreCase("stop")) {
+				stamper.stop();
+			} else if (aString.length == 2) {
+				File file = new File(new File(Minecraft.getMinecraft().mcDataDir, "stamps"), aString[1] + ".stamp");
+				if (!BlockPlacer.isPlaceEnabled() || !Event.getInstance().isDrawValid()) {
+					throw new WrongUsageException (Lang.getCommandUsage(modPrefix, "mrbp", "stamp.place"), new Object[] {commandName});
+				}
+				try {
+					stamper.start(Minecraft.getMinecraft(), file);
+				} catch (IOException e) {
+					outputMsg (sender, Lang.getMsgParams (modPrefix, "stamp.failed", modName, file.getPath(), e.getMessage()));
+					return;
+				}
+			} else if (aString.length != 1) {
+				throw new WrongUsageException (Lang.getCommandUsage(modPrefix, "mrbp", "stamp"), new Object[] {commandName});
+			}
+			outputMsg (sender, Lang.getMsgParams (modPrefix, "stamp.status", modName, (stamper.isActive() ? "on" : "off"),
+					stamper.getIndex(), stamper.getCount(), stamper.getPlacedCount(), stamper.getSkippedCount()));
+
+		// TRACE
+		} else if (aString.length > 0 && aString[0].equalsIgnoreCase("trace")) {
+			TraceRecorder recorder = TraceRecorder.getInstance();
+			if (aString.length == 2 && aString[1].equalsIgnoreCase("start")) {
+				String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+				File file = new File(Minecraft.getMinecraft().mcDataDir, "blockplacer-" + stamp + ".trace");
+				if (recorder.start(file)) {
+					outputMsg (sender, Lang.getMsgParams (modPrefix, "trace.start", modName, file.getPath()));
+				} else {
+					outputMsg (sender, Lang.getMsgParams (modPrefix, "trace.failed", modName, file.getPath()));
+				}
+			} else if (aString.length == 2 && aString[1].equalsIgnoreCase("stop")) {
+				recorder.stop();
+				outputMsg (sender, Lang.getMsgParams (modPrefix, "trace.stop", modName, recorder.getRecordCount(),
+						String.valueOf(recorder.getFile())));
+			} else if (aString.length == 1) {
+				outputMsg (sender, Lang.getMsgParams (modPrefix, "trace.status", modName,
+						(recorder.isActive() ? "on" : "off"), recorder.getRecordCount()));
+			} else {
+				throw new WrongUsageException (Lang.getCommandUsage(modPrefix, "mrbp", "trace"), new Object[] {commandName});
+			}
+
+		// UNDO
+		} else if (aString.length > 0 && aString[0].equalsIgnoreCase("undo")) {
+			PlacementJournal journal = PlacementJournal.getInstance();
+			if (aString.length == 2 && aString[1].equalsIgnoreCase("stop")) {
+				journal.cancelUndo();
+			} else if (aString.length <= 2) {
+				int placements = 1;
+				if (aString.length == 2) {
+					try {
+						placements = Integer.parseInt(aString[1]);
+					} catch (NumberFormatException e) {
+						placements = 0;
+					}
+					if (placements < 1) {
+						throw new WrongUsageException (Lang.getCommandUsage(modPrefix, "mrbp", "undo"), new Object[] {commandName});
+					}
+				}
+				journal.undo(placements);
+			} else {
+				throw new WrongUsageException (Lang.getCommandUsage(modPrefix, "mrbp", "undo"), new Object[] {commandName});
+			}
+			outputMsg (sender, Lang.getMsgParams (modPrefix, "undo.status", modName, journal.getUndoRemaining(),
+					journal.getCount()));
+
+		// UNKNOWN HERE - hand to super to deal with!
+		} else {
+			super.processClientCommand (sender, aString);
+		}
+	}
+	
+	/**
+	 * @param sender is the command sender
+	 * @param aString is the array of command words
+	 * @returns a List of all words that are candidate completion options for the last word
+	 */
+	@Override
+	@SideOnly(Side.CLIENT)
+	public List addTabCompletionOptions(ICommandSender sender, String[] aString) {
+		if (aString.length == 1) {
+			return Util.mergeLists (super.addTabCompletionOptions(sender, aString),
+					Util.getMatchesOnLastWord(aString, "mirror", "shape", "stamp", "stats", "trace", "undo"));
+		} else if (aString.length == 2 && aString[0].equalsIgnoreCase("mirror")) {
+			return Util.getMatchesOnLastWord(aString, "off", "x", "y", "z", "xy", "xz", "yz", "xyz", "origin");
+		} else if (aString.length == 2 && aString[0].equalsIgnoreCase("shape")) {
+			return Util.getMatchesOnLastWord(aString, "single", "line", "wall", "floor", "box", "stop");
+		} else if (aString.length == 2 && aString[0].equalsIgnoreCase("stamp")) {
+			return Util.getMatchesOnLastWord(aString, "stop");
+		} else if (aString.length == 2 && aString[0].equalsIgnoreCase("trace")) {
+			return Util.getMatchesOnLastWord(aString, "start", "stop");
+		} else if (aString.length == 2 && aString[0].equalsIgnoreCase("undo")) {
+			return Util.getMatchesOnLastWord(aString, "stop");
+		}
+		return super.addTabCompletionOptions(sender, aString);
+	}
 }
\ No newline at end of file
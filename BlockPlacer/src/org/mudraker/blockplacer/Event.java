@@ -1,226 +1,441 @@
-/**
- * Copyright (C) 2014  MudRaker
- * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as 
- * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
- * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
- * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
- */
-package org.mudraker.blockplacer;
-
-import net.minecraft.client.Minecraft;
-import net.minecraft.client.renderer.Tessellator;
-import net.minecraft.client.settings.GameSettings;
-import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.item.ItemBlock;
-import net.minecraft.util.AxisAlignedBB;
-import net.minecraft.util.EnumMovingObjectType;
-import net.minecraft.util.MovingObjectPosition;
-import net.minecraft.world.World;
-import net.minecraftforge.client.event.DrawBlockHighlightEvent;
-import net.minecraftforge.event.ForgeSubscribe;
-import net.minecraftforge.event.entity.player.PlayerInteractEvent;
-
-import org.lwjgl.opengl.GL11;
-import org.mudraker.Log;
-
-import cpw.mods.fml.relauncher.Side;
-import cpw.mods.fml.relauncher.SideOnly;
-
-/**
- * BlockPlacer Client Side Event handler.
- * 
- * <p>Handles {@link PlayerInteractEvent} and {@link DrawBlockHighLightEvent} events
- * Overrides selection box to show the {@link BlockPlacer} place location and catches player 
- * right clicks to actually places the block at the BlockPlacer location.</p>
- *  
- * <p>Pattern: Singleton Event Subscriber</p>
- * 
- * @author MudRaker
- */
-@SideOnly(Side.CLIENT)
-public class Event {
-	// Singleton instance enforcement
-	private final static Event instance = new Event(); // Singleton instance
-	public static Event getInstance() { return instance; } // Return singleton for access
-	private Event() {} // Singleton: Prevent additional instantiation
-	
-	private World theWorld; // allows base minecraft functions to be used unchanged.
-	private Coordinate drawPosition = new Coordinate(0,0,0); // reusable structure object
-
-	/** MINECRAFT constant: Dimension number of the nether */
-	public static final int DIMENSION_NETHER = -1;
-	/**
-	 * Override default right click action if {@link BlockPlacer} is enabled and the player 
-	 * is holding a valid {@link ItemBlock} that can be placed.
-	 * @param event details provided by Forge.
-	 */
-	@SideOnly(Side.CLIENT)
-	@ForgeSubscribe
-	public void onPlayerInteraction(PlayerInteractEvent event) {
-		EntityPlayer entityPlayer = event.entityPlayer;
-
-		// Ensure only runs on client side when BlockPlacer is enabled
-		if (!entityPlayer.worldObj.isRemote || !BlockPlacer.isPlaceEnabled())
-			return;
-
-		if (event.action == PlayerInteractEvent.Action.RIGHT_CLICK_BLOCK) {
-			// Nothing to do if empty hands or not an ItemBlock
-			if (!BlockPlacer.isHoldingItemBlock(entityPlayer)) {
-				Log.finer("Default rightclick at " + event.x + "," + event.y + ","
-						+ event.z + " on side " + event.face + " - no item or not ItemBlock");
-				return; // let the standard code deal with it
-			}
-
-			// Cancel this event to stop the block being placed by the standard code
-			event.setCanceled(true);
-
-			// OK, place a block here then
-			BlockPlacer.doRightClick (entityPlayer);
-		}
-	}
-	
-	/**
-	 * Override default selection box rendering if {@link BlockPlacer} is enabled and user is not
-	 * pressing the Attack or PickBlock keys (normally left and middle mouse buttons)
-	 * and the user is holding an {@link ItemBlock} that can be placed.
-	 * @param event details provided by Forge.
-	 */
-	@SideOnly(Side.CLIENT)
-	@ForgeSubscribe
-	public void onDrawBlockSelectionBox(DrawBlockHighlightEvent event) {
-		// Draw nothing unless placeMode is activated & we are selecting a tile
-		if (BlockPlacer.isPlaceEnabled() && event.target.typeOfHit == EnumMovingObjectType.TILE) {
-			Minecraft mc = Minecraft.getMinecraft();
-			this.theWorld = mc.theWorld; // used by minecraft base functions
-			
-			// only render if holding ItemBlock and no other mouse buttons pressed
-			if (!GameSettings.isKeyDown(mc.gameSettings.keyBindAttack)
-					&& !GameSettings.isKeyDown(mc.gameSettings.keyBindPickBlock)
-					&& BlockPlacer.isHoldingItemBlock(event.player)) {
-				
-				// establish draw position & only proceed if a good placement is found 
-				if (BlockPlacer.establishPlacement (mc, event.player, event.target, drawPosition) != null) {
-					drawSelectionBox(event.player, event.target, 0, event.partialTicks);
-					event.setCanceled(true); // cancel the standard draw
-				}
-			}
-		}
-	}
-
-	/**
-	 * Draws the selection box for the player. 
-	 * <p>Args: entityPlayer, rayTraceHit, i, partialTickTime 
-	 * <p>Based on net.minecraft.client.renderer.RenderGlobal.java. 
-	 * Which is called by net.minecraft.client.renderer.entityRenderer.java.
-	 * @@MCVERSION164@@
-	 */
-	private void drawSelectionBox(EntityPlayer par1EntityPlayer, MovingObjectPosition par2MovingObjectPosition, int par3, float par4) {
-		// Add config instance declaration
-		Config config = Config.getInstance();
-		if (par3 == 0 && par2MovingObjectPosition.typeOfHit == EnumMovingObjectType.TILE) {
-			GL11.glEnable(GL11.GL_BLEND);
-			GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-			// Replaced to configure colour and width
-			// GL11.glColor4f(0.0F, 0.0F, 0.0F, 0.4F);
-			// GL11.glLineWidth(2.0F);
-			if (config.frameSwapInNether && par1EntityPlayer.dimension == DIMENSION_NETHER) {
-				GL11.glColor4f(config.frameGreenF, config.frameRedF, config.frameBlueF, config.frameAlphaF);
-			} else {
-				GL11.glColor4f(config.frameRedF, config.frameGreenF, config.frameBlueF, config.frameAlphaF);
-			}
-			GL11.glLineWidth((float)config.frameLineWidth);
-			// end change
-			GL11.glDisable(GL11.GL_TEXTURE_2D);
-			GL11.glDepthMask(false);
-			// Replaced to configure expansion
-			//float f1 = 0.002F;
-			float f1 = config.frameExpand;
-			// end change
-			int j = this.theWorld.getBlockId(par2MovingObjectPosition.blockX, par2MovingObjectPosition.blockY, par2MovingObjectPosition.blockZ);
-
-			if (j > 0) {
-				// Removed - Don't need to get block specific bounds
-				// Block.blocksList[j].setBlockBoundsBasedOnState(this.theWorld, par2MovingObjectPosition.blockX, par2MovingObjectPosition.blockY, par2MovingObjectPosition.blockZ);
-				double d0 = par1EntityPlayer.lastTickPosX + (par1EntityPlayer.posX - par1EntityPlayer.lastTickPosX) * (double) par4;
-				double d1 = par1EntityPlayer.lastTickPosY + (par1EntityPlayer.posY - par1EntityPlayer.lastTickPosY) * (double) par4;
-				double d2 = par1EntityPlayer.lastTickPosZ + (par1EntityPlayer.posZ - par1EntityPlayer.lastTickPosZ) * (double) par4;
-				// Replaced - Don't need to get block specific box
-				// But do need to use the BlockPlacer position instead.
-                //this.drawOutlinedBoundingBox(Block.blocksList[j].getSelectedBoundingBoxFromPool(this.theWorld, par2MovingObjectPosition.blockX, par2MovingObjectPosition.blockY, par2MovingObjectPosition.blockZ).expand((double)f1, (double)f1, (double)f1).getOffsetBoundingBox(-d0, -d1, -d2));
-				this.drawOutlinedBoundingBox(this.getFullBoundingBoxFromPool(drawPosition.x, drawPosition.y, drawPosition.z)
-						.expand((double) f1, (double) f1, (double) f1)
-						.getOffsetBoundingBox(-d0, -d1, -d2));
-				// end change
-			}
-
-			GL11.glDepthMask(true);
-			GL11.glEnable(GL11.GL_TEXTURE_2D);
-			GL11.glDisable(GL11.GL_BLEND);
-		}
-	}
-
-	/**
-	 * Draws lines for the edges of the bounding box. 
-	 * <p>UNCHANGED private method from net.minecraft.client.renderer.RenderGlobal.java.</p>
-	 * @@MCVERSION164@@
-	 */
-	private void drawOutlinedBoundingBox(AxisAlignedBB par1AxisAlignedBB) {
-		Tessellator tessellator = Tessellator.instance;
-		tessellator.startDrawing(3);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
-				par1AxisAlignedBB.minZ);
-		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.minY,
-				par1AxisAlignedBB.minZ);
-		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.minY,
-				par1AxisAlignedBB.maxZ);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
-				par1AxisAlignedBB.maxZ);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
-				par1AxisAlignedBB.minZ);
-		tessellator.draw();
-		tessellator.startDrawing(3);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
-				par1AxisAlignedBB.minZ);
-		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.maxY,
-				par1AxisAlignedBB.minZ);
-		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.maxY,
-				par1AxisAlignedBB.maxZ);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
-				par1AxisAlignedBB.maxZ);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
-				par1AxisAlignedBB.minZ);
-		tessellator.draw();
-		tessellator.startDrawing(1);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
-				par1AxisAlignedBB.minZ);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
-				par1AxisAlignedBB.minZ);
-		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.minY,
-				par1AxisAlignedBB.minZ);
-		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.maxY,
-				par1AxisAlignedBB.minZ);
-		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.minY,
-				par1AxisAlignedBB.maxZ);
-		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.maxY,
-				par1AxisAlignedBB.maxZ);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
-				par1AxisAlignedBB.maxZ);
-		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
-				par1AxisAlignedBB.maxZ);
-		tessellator.draw();
-	}
-
-	/**
-	 * Returns the FULL block bounding box of the wired rectangular prism to render. 
-	 * <p>See net.minecraft.block.Block.java/getSelectedBoundingBoxFromPool for insight.
-	 * @param x is the integer world X coordinate
-	 * @param y is the integer world Y coordinate
-	 * @param z is the integer world Z coordinate
-	 * @returns FULL cubic block bounding box for the coordinates
-	 */
-	private AxisAlignedBB getFullBoundingBoxFromPool(int x, int y, int z) {
-		// Optimises bounding box to be full block cube (min=0, max=1.0F)
-		return AxisAlignedBB.getAABBPool().getAABB((double) x, (double) y, (double) z,
-				(double) (x + 1), (double) (y + 1), (double) (z + 1));
-	}
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GLAllocation;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.settings.GameSettings;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemBlock;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.util.EnumMovingObjectType;
+import net.minecraft.util.MovingObjectPosition;
+import net.minecraft.world.World;
+import net.minecraftforge.client.event.DrawBlockHighlightEvent;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.ForgeSubscribe;
+import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.world.WorldEvent;
+
+import org.lwjgl.opengl.GL11;
+import org.mudraker.Log;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer Client Side Event handler.
+ * 
+ * <p>Handles {@link PlayerInteractEvent} and {@link DrawBlockHighLightEvent} events
+ * Overrides selection box to show the {@link BlockPlacer} place location and catches player 
+ * right clicks to actually places the block at the BlockPlacer location.</p>
+ * <p>Also handles {@link WorldEvent.Unload} to stop work tied to the client world when the player
+ * disconnects or changes dimension.</p>
+ * <p>The interaction and world handlers stay registered. The per-frame selection box handler in
+ * {@link FrameListener}, along with the {@link Overlay}, is only registered while place mode
+ * is on - see {@link setListening} - so nothing is dispatched to BlockPlacer each frame
+ * while it is off.</p>
+ *  
+ * <p>Pattern: Singleton Event Subscriber</p>
+ * 
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class Event {
+	// Singleton instance enforcement
+	private final static Event instance = new Event(); // Singleton instance
+	public static Event getInstance() { return instance; } // Return singleton for access
+	private Event() {} // Singleton: Prevent additional instantiation
+	
+	private World theWorld; // allows base minecraft functions to be used unchanged.
+	private Coordinate drawPosition = new Coordinate(0,0,0); // reusable structure object
+	
+	/** Should the wire frame be drawn at drawPosition? Established once per tick by {@link updatePlacement} */
+	private boolean drawValid = false;
+	
+	/** Wire frame display list, or -1 if not yet allocated */
+	private int frameList = -1;
+	
+	/** Configuration version and nether swap the frameList was compiled for */
+	private int frameListVersion;
+	private boolean frameListSwap;
+	
+	/** Auto-repeat preview display list, or -1 if not yet allocated */
+	private int previewList = -1;
+	
+	/** Preview version, configuration version and nether swap the previewList was compiled for */
+	private int previewListVersion, previewListConfigVersion;
+	private boolean previewListSwap;
+	
+	/** Packed position the previewList frames are relative to */
+	private long previewListOrigin;
+
+	/** Per-frame listener registered while place mode is on */
+	private final FrameListener frameListener = new FrameListener();
+	
+	/** Are the per-frame listeners registered? */
+	private boolean listening = false;
+
+	/** MINECRAFT constant: Dimension number of the nether */
+	public static final int DIMENSION_NETHER = -1;
+	/**
+	 * Override default right click action if {@link BlockPlacer} is enabled and the player 
+	 * is holding a valid {@link ItemBlock} that can be placed.
+	 * @param event details provided by Forge.
+	 */
+	@SideOnly(Side.CLIENT)
+	@ForgeSubscribe
+	public void onPlayerInteraction(PlayerInteractEvent event) {
+		EntityPlayer entityPlayer = event.entityPlayer;
+
+		// Ensure only runs on client side when BlockPlacer is enabled
+		if (!entityPlayer.worldObj.isRemote || !BlockPlacer.isPlaceEnabled())
+			return;
+
+		if (event.action == PlayerInteractEvent.Action.RIGHT_CLICK_BLOCK) {
+			// Nothing to do if empty hands or not an ItemBlock
+			if (!BlockPlacer.isHoldingItemBlock(entityPlayer)) {
+				Log.finer("Default rightclick at " + event.x + "," + event.y + ","
+						+ event.z + " on side " + event.face + " - no item or not ItemBlock");
+				return; // let the standard code deal with it
+			}
+
+			// Cancel this event to stop the block being placed by the standard code
+			event.setCanceled(true);
+
+			// OK, place a block or shape here then - paced by the engine if hold-to-place is on
+			PlaceEngine engine = PlaceEngine.getInstance();
+			if (Config.getInstance().placeShape != Config.ShapeMode.SINGLE) {
+				engine.startShape(Minecraft.getMinecraft(), entityPlayer);
+			} else if (engine.isEnabled()) {
+				engine.tryPlace(Minecraft.getMinecraft(), entityPlayer, Tick.getInstance().getTickCount());
+			} else {
+				BlockPlacer.doRightClick (entityPlayer);
+			}
+		}
+	}
+	
+	/**
+	 * Stop any trace capture, stamp, shape and undo when the client world is unloaded - on
+	 * disconnect or dimension change - as their positions belong to the old world.
+	 * @param event details provided by Forge.
+	 */
+	@ForgeSubscribe
+	public void onWorldUnload(WorldEvent.Unload event) {
+		if (event.world == null || !event.world.isRemote) return; // integrated server world
+		TraceRecorder.getInstance().stop();
+		StampPlacer.getInstance().stop();
+		PlaceEngine.getInstance().clear();
+		PlacementJournal.getInstance().clear();
+	}
+
+	/**
+	 * Register or unregister the per-frame listeners. Called when place mode is turned on or off.
+	 * @param listen is true to register the listeners or false to unregister them
+	 */
+	public void setListening(boolean listen) {
+		if (listen == listening) return;
+		listening = listen;
+		if (listen) {
+			MouseFilter.getInstance().reset();
+			MinecraftForge.EVENT_BUS.register(frameListener);
+			MinecraftForge.EVENT_BUS.register(Overlay.getInstance());
+		} else {
+			MinecraftForge.EVENT_BUS.unregister(frameListener);
+			MinecraftForge.EVENT_BUS.unregister(Overlay.getInstance());
+			drawValid = false;
+		}
+		Log.fine("BlockPlacer per-frame listeners " + (listen ? "registered" : "unregistered"));
+	}
+	
+	/** @return true if the last {@link updatePlacement} established a placement to draw */
+	public boolean isDrawValid() {
+		return drawValid;
+	}
+	
+	/**
+	 * Establish the placement for the current ray trace if {@link BlockPlacer} is enabled and user is not
+	 * pressing the Attack or PickBlock keys (normally left and middle mouse buttons)
+	 * and the user is holding an {@link ItemBlock} that can be placed.
+	 * <p>Called once per client tick by {@link Tick} so the placement work does not scale with frame rate.</p>
+	 * @param mc is the Minecraft instance
+	 */
+	public void updatePlacement(Minecraft mc) {
+		MovingObjectPosition mop = mc.objectMouseOver;
+		drawValid = false;
+		
+		// Nothing to establish unless placeMode is activated & we are selecting a tile
+		if (BlockPlacer.isPlaceEnabled() && mop != null && mop.typeOfHit == EnumMovingObjectType.TILE) {
+			
+			// only establish if holding ItemBlock and no other mouse buttons pressed
+			if (!GameSettings.isKeyDown(mc.gameSettings.keyBindAttack)
+					&& !GameSettings.isKeyDown(mc.gameSettings.keyBindPickBlock)
+					&& BlockPlacer.isHoldingItemBlock(mc.thePlayer)) {
+				
+				// establish draw position & only draw if a good placement is found 
+				drawValid = (BlockPlacer.establishPlacement (mc, mc.thePlayer, mop, drawPosition) != null);
+			}
+		}
+		if (!drawValid) BlockPlacer.clearDrawText();
+		PlacePreview.getInstance().update(mc, drawValid);
+	}
+	
+	/**
+	 * Override default selection box rendering with the placement established by the last
+	 * {@link updatePlacement} if there is one. Dispatched by the {@link FrameListener}.
+	 * The time taken is recorded against the {@link FrameBudget}.
+	 * @param event details provided by Forge.
+	 */
+	public void onDrawBlockSelectionBox(DrawBlockHighlightEvent event) {
+		// Draw nothing unless placeMode is activated & we are selecting a tile
+		if (drawValid && BlockPlacer.isPlaceEnabled() && event.target.typeOfHit == EnumMovingObjectType.TILE) {
+			long start = System.nanoTime();
+			this.theWorld = Minecraft.getMinecraft().theWorld; // used by minecraft base functions
+			drawSelectionBox(event.player, event.target, 0, event.partialTicks);
+			event.setCanceled(true); // cancel the standard draw
+			FrameBudget.getInstance().record(start);
+		}
+	}
+
+	/**
+	 * Draws the selection box for the player. 
+	 * <p>Args: entityPlayer, rayTraceHit, i, partialTickTime 
+	 * <p>Based on net.minecraft.client.renderer.RenderGlobal.java. 
+	 * Which is called by net.minecraft.client.renderer.entityRenderer.java.
+	 * <p>The GL state and unit cube wire frame are compiled into a display list (see {@link getFrameList})
+	 * so the frame is drawn with one call, translated and scaled to the expanded draw position
+	 * relative to the interpolated player position.</p>
+	 * @@MCVERSION164@@
+	 */
+	private void drawSelectionBox(EntityPlayer par1EntityPlayer, MovingObjectPosition par2MovingObjectPosition, int par3, float par4) {
+		// Add config instance declaration
+		Config config = Config.getInstance();
+		if (par3 == 0 && par2MovingObjectPosition.typeOfHit == EnumMovingObjectType.TILE) {
+			// Replaced to configure expansion
+			//float f1 = 0.002F;
+			double f1 = (double) config.frameExpand;
+			// end change
+			double d0 = par1EntityPlayer.lastTickPosX + (par1EntityPlayer.posX - par1EntityPlayer.lastTickPosX) * (double) par4;
+			double d1 = par1EntityPlayer.lastTickPosY + (par1EntityPlayer.posY - par1EntityPlayer.lastTickPosY) * (double) par4;
+			double d2 = par1EntityPlayer.lastTickPosZ + (par1EntityPlayer.posZ - par1EntityPlayer.lastTickPosZ) * (double) par4;
+			// Replaced - Draw the cached unit cube at the BlockPlacer position instead of a pooled bounding box
+			GL11.glPushMatrix();
+			GL11.glTranslated((double) drawPosition.x - f1 - d0, (double) drawPosition.y - f1 - d1, (double) drawPosition.z - f1 - d2);
+			GL11.glScaled(1.0D + 2.0D * f1, 1.0D + 2.0D * f1, 1.0D + 2.0D * f1);
+			GL11.glCallList(getFrameList(config, par1EntityPlayer.dimension == DIMENSION_NETHER));
+			GL11.glPopMatrix();
+			// end change
+			// Added - Draw the auto-repeat preview frames in one call
+			PlacePreview preview = PlacePreview.getInstance();
+			if (preview.getCount() > 0) {
+				int list = getPreviewList(config, par1EntityPlayer.dimension == DIMENSION_NETHER, preview);
+				GL11.glPushMatrix();
+				GL11.glTranslated((double) Coordinate.unpackX(previewListOrigin) - d0, (double) Coordinate.unpackY(previewListOrigin) - d1,
+						(double) Coordinate.unpackZ(previewListOrigin) - d2);
+				GL11.glCallList(list);
+				GL11.glPopMatrix();
+			}
+			// end add
+		}
+	}
+	
+	/**
+	 * Returns the display list that draws the wire frame, compiling it first if the configuration
+	 * or nether colour swap has changed since it was last compiled.
+	 * <p>The list sets the blend, colour, line width, texture and depth state from the {@link Config},
+	 * draws the edges of a unit cube and restores the state.</p>
+	 * @param config is the configuration
+	 * @param inNether is true if the player is in the nether
+	 * @return the display list
+	 * @@MCVERSION164@@
+	 */
+	private int getFrameList(Config config, boolean inNether) {
+		boolean swap = config.frameSwapInNether && inNether;
+		if (frameList < 0) {
+			frameList = GLAllocation.generateDisplayLists(1);
+		} else if (frameListVersion == config.getVersion() && frameListSwap == swap) {
+			return frameList;
+		}
+		frameListVersion = config.getVersion();
+		frameListSwap = swap;
+		
+		GL11.glNewList(frameList, GL11.GL_COMPILE);
+		GL11.glEnable(GL11.GL_BLEND);
+		GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+		if (swap) {
+			GL11.glColor4f(config.frameGreenF, config.frameRedF, config.frameBlueF, config.frameAlphaF);
+		} else {
+			GL11.glColor4f(config.frameRedF, config.frameGreenF, config.frameBlueF, config.frameAlphaF);
+		}
+		GL11.glLineWidth((float)config.frameLineWidth);
+		GL11.glDisable(GL11.GL_TEXTURE_2D);
+		GL11.glDepthMask(false);
+		this.drawOutlinedBoundingBox(this.getFullBoundingBoxFromPool(0, 0, 0));
+		GL11.glDepthMask(true);
+		GL11.glEnable(GL11.GL_TEXTURE_2D);
+		GL11.glDisable(GL11.GL_BLEND);
+		GL11.glEndList();
+		Log.finer("Wire frame display list " + frameList + " compiled for config version " + frameListVersion);
+		return frameList;
+	}
+
+	/**
+	 * Returns the display list that draws the auto-repeat preview frames, compiling it first if the
+	 * preview, configuration or nether colour swap has changed since it was last compiled.
+	 * <p>All preview frames are batched into a single tessellator draw relative to the preview start, 
+	 * using the wire frame state at half the frame alpha.</p>
+	 * @param config is the configuration
+	 * @param inNether is true if the player is in the nether
+	 * @param preview is the auto-repeat preview
+	 * @return the display list
+	 * @@MCVERSION164@@
+	 */
+	private int getPreviewList(Config config, boolean inNether, PlacePreview preview) {
+		boolean swap = config.frameSwapInNether && inNether;
+		if (previewList < 0) {
+			previewList = GLAllocation.generateDisplayLists(1);
+		} else if (previewListVersion == preview.getVersion() && previewListConfigVersion == config.getVersion()
+				&& previewListSwap == swap) {
+			return previewList;
+		}
+		previewListVersion = preview.getVersion();
+		previewListConfigVersion = config.getVersion();
+		previewListSwap = swap;
+		previewListOrigin = preview.getStart();
+		
+		double e = (double) config.frameExpand;
+		int ox = Coordinate.unpackX(previewListOrigin), oy = Coordinate.unpackY(previewListOrigin), oz = Coordinate.unpackZ(previewListOrigin);
+		GL11.glNewList(previewList, GL11.GL_COMPILE);
+		GL11.glEnable(GL11.GL_BLEND);
+		GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+		if (swap) {
+			GL11.glColor4f(config.frameGreenF, config.frameRedF, config.frameBlueF, config.frameAlphaF * 0.5F);
+		} else {
+			GL11.glColor4f(config.frameRedF, config.frameGreenF, config.frameBlueF, config.frameAlphaF * 0.5F);
+		}
+		GL11.glLineWidth((float)config.frameLineWidth);
+		GL11.glDisable(GL11.GL_TEXTURE_2D);
+		GL11.glDepthMask(false);
+		Tessellator tessellator = Tessellator.instance;
+		tessellator.startDrawing(GL11.GL_LINES);
+		for (int n = 0; n < preview.getCount(); n++) {
+			long position = preview.get(n);
+			addBoxEdges(tessellator, Coordinate.unpackX(position) - ox - e, Coordinate.unpackY(position) - oy - e,
+					Coordinate.unpackZ(position) - oz - e, 1.0D + 2.0D * e);
+		}
+		tessellator.draw();
+		GL11.glDepthMask(true);
+		GL11.glEnable(GL11.GL_TEXTURE_2D);
+		GL11.glDisable(GL11.GL_BLEND);
+		GL11.glEndList();
+		return previewList;
+	}
+	
+	/**
+	 * Adds the twelve edges of a cube as line vertex pairs.
+	 * @param tessellator is the tessellator drawing GL_LINES
+	 * @param x, y, z are the minimum corner of the cube
+	 * @param size is the cube edge length
+	 */
+	private static void addBoxEdges(Tessellator tessellator, double x, double y, double z, double size) {
+		double x1 = x + size, y1 = y + size, z1 = z + size;
+		// bottom and top faces
+		for (int face = 0; face < 2; face++) {
+			double h = (face == 0) ? y : y1;
+			tessellator.addVertex(x, h, z);   tessellator.addVertex(x1, h, z);
+			tessellator.addVertex(x1, h, z);  tessellator.addVertex(x1, h, z1);
+			tessellator.addVertex(x1, h, z1); tessellator.addVertex(x, h, z1);
+			tessellator.addVertex(x, h, z1);  tessellator.addVertex(x, h, z);
+		}
+		// verticals
+		tessellator.addVertex(x, y, z);   tessellator.addVertex(x, y1, z);
+		tessellator.addVertex(x1, y, z);  tessellator.addVertex(x1, y1, z);
+		tessellator.addVertex(x1, y, z1); tessellator.addVertex(x1, y1, z1);
+		tessellator.addVertex(x, y, z1);  tessellator.addVertex(x, y1, z1);
+	}
+
+	/**
+	 * Draws lines for the edges of the bounding box. 
+	 * <p>UNCHANGED private method from net.minecraft.client.renderer.RenderGlobal.java.</p>
+	 * @@MCVERSION164@@
+	 */
+	private void drawOutlinedBoundingBox(AxisAlignedBB par1AxisAlignedBB) {
+		Tessellator tessellator = Tessellator.instance;
+		tessellator.startDrawing(3);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
+				par1AxisAlignedBB.minZ);
+		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.minY,
+				par1AxisAlignedBB.minZ);
+		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.minY,
+				par1AxisAlignedBB.maxZ);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
+				par1AxisAlignedBB.maxZ);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
+				par1AxisAlignedBB.minZ);
+		tessellator.draw();
+		tessellator.startDrawing(3);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
+				par1AxisAlignedBB.minZ);
+		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.maxY,
+				par1AxisAlignedBB.minZ);
+		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.maxY,
+				par1AxisAlignedBB.maxZ);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
+				par1AxisAlignedBB.maxZ);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
+				par1AxisAlignedBB.minZ);
+		tessellator.draw();
+		tessellator.startDrawing(1);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
+				par1AxisAlignedBB.minZ);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
+				par1AxisAlignedBB.minZ);
+		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.minY,
+				par1AxisAlignedBB.minZ);
+		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.maxY,
+				par1AxisAlignedBB.minZ);
+		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.minY,
+				par1AxisAlignedBB.maxZ);
+		tessellator.addVertex(par1AxisAlignedBB.maxX, par1AxisAlignedBB.maxY,
+				par1AxisAlignedBB.maxZ);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.minY,
+				par1AxisAlignedBB.maxZ);
+		tessellator.addVertex(par1AxisAlignedBB.minX, par1AxisAlignedBB.maxY,
+				par1AxisAlignedBB.maxZ);
+		tessellator.draw();
+	}
+
+	/**
+	 * Returns the FULL block bounding box of the wired rectangular prism to render. 
+	 * <p>See net.minecraft.block.Block.java/getSelectedBoundingBoxFromPool for insight.
+	 * @param x is the integer world X coordinate
+	 * @param y is the integer world Y coordinate
+	 * @param z is the integer world Z coordinate
+	 * @returns FULL cubic block bounding box for the coordinates
+	 */
+	private AxisAlignedBB getFullBoundingBoxFromPool(int x, int y, int z) {
+		// Optimises bounding box to be full block cube (min=0, max=1.0F)
+		return AxisAlignedBB.getAABBPool().getAABB((double) x, (double) y, (double) z,
+				(double) (x + 1), (double) (y + 1), (double) (z + 1));
+	}
+
+	/**
+	 * Per-frame selection box event subscriber.
+	 * <p>Separate from the {@link Event} singleton so that it can be registered only while place
+	 * mode is on. Public as the Forge event bus requires it.</p>
+	 */
+	public static class FrameListener {
+		private FrameListener() {}
+
+		@ForgeSubscribe
+		public void onDrawBlockSelectionBox(DrawBlockHighlightEvent event) {
+			instance.onDrawBlockSelectionBox(event);
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer frame budget watchdog.
+ * <p>Measures the time spent each frame in the BlockPlacer render hooks - the selection box
+ * and the overlay - plus the placement update of any client tick that ran in the frame, and
+ * keeps a smoothed average. If the average stays above {@link Config#frameBudget} for
+ * {@link #OVER_FRAMES} frames, features are turned off one level at a time: first the reminder
+ * text blinking (the text stays on), then the facing text, then the smart start search. A level is restored once the average has stayed below half the budget for
+ * {@link #RECOVER_FRAMES} frames.</p>
+ *
+ * <p>Pattern: Singleton</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class FrameBudget {
+	// Singleton instance enforcement
+	private final static FrameBudget instance = new FrameBudget(); // Singleton instance
+	public static FrameBudget getInstance() { return instance; } // Return singleton for access
+	private FrameBudget() {} // Singleton: Prevent additional instantiation
+
+	// Degrade levels
+	public static final int LEVEL_FULL = 0;
+	public static final int LEVEL_NO_BLINK = 1;
+	public static final int LEVEL_NO_FACING = 2;
+	public static final int LEVEL_NO_SMART_START = 3;
+
+	/** Frames over budget before stepping down a level */
+	public static final int OVER_FRAMES = 20;
+
+	/** Frames under half budget before stepping back up a level */
+	public static final int RECOVER_FRAMES = 200;
+
+	/** Weight of the latest frame in the smoothed average (0 to 1) */
+	private static final double SMOOTHING = 0.1D;
+
+	/** Hook time measured so far this frame */
+	private long frameNanos = 0;
+
+	/** Smoothed hook time per frame */
+	private double averageNanos = 0.0D;
+
+	/** Consecutive frames over budget, or under half budget if negative */
+	private int streak = 0;
+
+	/** Current degrade level */
+	private int level = LEVEL_FULL;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Add the time taken by a render hook or tick placement update to this frame.
+	 * @param startNanos is the System.nanoTime when the hook or update started
+	 */
+	public void record(long startNanos) {
+		frameNanos += System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Close the measurement of the last frame and step the degrade level down or up.
+	 * Called once at the start of every rendered frame.
+	 */
+	public void frame() {
+		long budget = Config.getInstance().frameBudget * 1000L;
+		averageNanos += (frameNanos - averageNanos) * SMOOTHING;
+		frameNanos = 0;
+		if (budget <= 0) {
+			setLevel(LEVEL_FULL);
+			streak = 0;
+		} else if (averageNanos > budget) {
+			streak = (streak < 0) ? 1 : streak + 1;
+			if (streak >= OVER_FRAMES && level < LEVEL_NO_SMART_START) {
+				setLevel(level + 1);
+				streak = 0;
+			}
+		} else if (averageNanos < budget / 2) {
+			streak = (streak > 0) ? -1 : streak - 1;
+			if (-streak >= RECOVER_FRAMES && level > LEVEL_FULL) {
+				setLevel(level - 1);
+				streak = 0;
+			}
+		} else {
+			streak = 0;
+		}
+	}
+
+	/** @return the current degrade level */
+	public int getLevel() {
+		return level;
+	}
+
+	/** @return the smoothed render hook time per frame in microseconds */
+	public long getAverageMicros() {
+		return (long) (averageNanos / 1000.0D);
+	}
+
+	/** @return true if the reminder text may blink, otherwise it is drawn steadily */
+	public boolean allowReminderBlink() {
+		return level < LEVEL_NO_BLINK;
+	}
+
+	/** @return true if the facing text may be drawn */
+	public boolean allowFacingText() {
+		return level < LEVEL_NO_FACING;
+	}
+
+	/** @return true if the smart start search may be used */
+	public boolean allowSmartStart() {
+		return level < LEVEL_NO_SMART_START;
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	private void setLevel(int newLevel) {
+		if (newLevel != level) {
+			Log.fine("FrameBudget level " + level + " -> " + newLevel + " (average " + getAverageMicros() + "us)");
+			level = newLevel;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Facing;
+import net.minecraft.world.World;
+
+/**
+ * BlockPlacer headless placement session.
+ * <p>Runs the {@link PlaceSession} solver against a {@link BlockSource} and a player view that is
+ * set directly, so a recorded trace or a benchmark can drive the real entry points without a
+ * running game. The World and EntityPlayer arguments of the entry points are never read and may
+ * be null, but the Minecraft block and item classes must be on the class path.</p>
+ * <p>Each side is checked as ItemBlock.canPlaceItemBlockOnSide checks a full block: the block goes
+ * into the position placed against if that is replaceable, otherwise into the block on the side,
+ * which must be air, replaceable or liquid. Blocks with their own placement rules (torches,
+ * ladders) and entity collisions are not modelled.</p>
+ * <p>The last solver decision is kept so it can be compared with a recorded one.</p>
+ *
+ * <p>Pattern: Per-player Mutable</p>
+ *
+ * @author MudRaker
+ */
+public class HeadlessSession extends PlaceSession {
+
+	/** Blocks the session places against */
+	private BlockSource blocks;
+
+	/** Player view */
+	private float yawAngle, pitchAngle;
+	private boolean sneaking;
+
+	/** Change stamp - moved on whenever the blocks may have changed */
+	private long changeStamp = 0;
+
+	// Last solver decision and the number made since the last clearDecisions
+	private int decisionCount;
+	private int decisionKind, decisionSide, decisionParam, decisionMask, decisionResult;
+	private long decisionPosition;
+
+	public HeadlessSession() {}
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Set the blocks to place against, forgetting anything read from the previous blocks.
+	 * @param blockSource is the block source
+	 */
+	public void setBlocks(BlockSource blockSource) {
+		blocks = blockSource;
+		changeStamp++;
+	}
+
+	/** Forget anything read from the blocks because they have changed */
+	public void blocksChanged() {
+		changeStamp++;
+	}
+
+	/**
+	 * Set the player view.
+	 * @param rotationYaw is the player yaw in degrees
+	 * @param rotationPitch is the player pitch in degrees
+	 * @param isSneaking is true if the player is sneaking
+	 */
+	public void setView(float rotationYaw, float rotationPitch, boolean isSneaking) {
+		yawAngle = rotationYaw;
+		pitchAngle = rotationPitch;
+		sneaking = isSneaking;
+	}
+
+	/**
+	 * Set the placement state directly.
+	 * @param enabled is the place mode
+	 * @param position is the packed place position
+	 * @param side is the place side
+	 * @param replaceable is true if the place position is replaceable
+	 */
+	public void setPlacement(boolean enabled, long position, int side, boolean replaceable) {
+		placeEnabled = enabled;
+		placeReinit = false;
+		placePosition = position;
+		placeSide = side;
+		placeReplaceable = replaceable;
+	}
+
+	/** Forget the decisions made so far */
+	public void clearDecisions() {
+		decisionCount = 0;
+	}
+
+	/** @return the number of solver decisions made since the last {@link #clearDecisions} */
+	public int getDecisionCount() {
+		return decisionCount;
+	}
+
+	/** @return the PlaceTrace DECIDE_xx kind of the last decision */
+	public int getDecisionKind() {
+		return decisionKind;
+	}
+
+	/** @return the packed position the last decision's side mask was for */
+	public long getDecisionPosition() {
+		return decisionPosition;
+	}
+
+	/** @return the side the last decision was made from */
+	public int getDecisionSide() {
+		return decisionSide;
+	}
+
+	/** @return the rotate direction, adjust direction or relative direction of the last decision */
+	public int getDecisionParam() {
+		return decisionParam;
+	}
+
+	/** @return the side validity mask of the last decision */
+	public int getDecisionMask() {
+		return decisionMask;
+	}
+
+	/** @return the side chosen by the last decision or -1 */
+	public int getDecisionResult() {
+		return decisionResult;
+	}
+
+	// **************************************
+	// Side specific hooks
+	// **************************************
+
+	@Override
+	protected long getChangeStamp(World theWorld) {
+		return changeStamp;
+	}
+
+	@Override
+	protected BlockSource getBlockSource(World theWorld) {
+		return blocks;
+	}
+
+	@Override
+	protected boolean canPlaceOnSide(World theWorld, EntityPlayer entityPlayer, long pos, int side) {
+		int x = Coordinate.unpackX(pos), y = Coordinate.unpackY(pos), z = Coordinate.unpackZ(pos);
+		if (!blocks.isReplaceable(x, y, z)) {
+			x += Facing.offsetsXForSide[side];
+			y += Facing.offsetsYForSide[side];
+			z += Facing.offsetsZForSide[side];
+		}
+		if (y < 0 || y > 255) return false;
+		int blockId = blocks.getBlockId(x, y, z);
+		return (blockId == 0 || CapabilityIndex.isLiquid(blockId) || blocks.isReplaceable(x, y, z));
+	}
+
+	@Override
+	protected int getFacing(EntityPlayer entityPlayer) {
+		return getYawDirection(yawAngle);
+	}
+
+	@Override
+	protected int getPitch(EntityPlayer entityPlayer) {
+		return getPitchZone(pitchAngle);
+	}
+
+	@Override
+	protected ItemStack getHeldItem(EntityPlayer entityPlayer) {
+		return null;
+	}
+
+	@Override
+	protected boolean isSneaking(EntityPlayer entityPlayer) {
+		return sneaking;
+	}
+
+	@Override
+	protected void traceDecision(int kind, long position, int pitch, int facing, int side, int param, int mask, int result) {
+		decisionCount++;
+		decisionKind = kind;
+		decisionPosition = position;
+		decisionSide = side;
+		decisionParam = param;
+		decisionMask = mask;
+		decisionResult = result;
+	}
+}
\ No newline at end of file
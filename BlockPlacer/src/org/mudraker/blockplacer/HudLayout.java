@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.FontRenderer;
+import net.minecraft.client.gui.ScaledResolution;
+import net.minecraft.util.MathHelper;
+
+import org.mudraker.Util;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer HUD layout cache.
+ * <p>Holds the icon position, the facing and reminder text strings and their scaled positions
+ * as drawn by the {@link Overlay}. The layout is only rebuilt when the placement side, player
+ * facing, replaceable state, config or screen resolution changes, so drawing the overlay in
+ * steady state does no string building or font measurement.</p>
+ * <p>Also holds the reminder text blink state.</p>
+ *
+ * <p>Pattern: Singleton</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class HudLayout {
+	// Singleton instance enforcement
+	private final static HudLayout instance = new HudLayout(); // Singleton instance
+	public static HudLayout getInstance() { return instance; } // Return singleton for access
+	private HudLayout() {} // Singleton: Prevent additional instantiation
+
+	/** Icon position, size and texture offset */
+	public int iconX, iconY, iconSize, iconOffset;
+
+	/** Facing text, or null if not drawn, and its position */
+	public String facingText;
+	public int facingX, facingY;
+
+	/** Reminder text, or null if not drawn, and its position */
+	public String reminderText;
+	public int reminderX, reminderY;
+
+	// Inputs the layout was built from
+	private int lastConfigVersion = -1;
+	private int lastWidth, lastHeight;
+	private int lastSide, lastFacing, lastMopSide;
+	private boolean lastReplaceable;
+	private FontRenderer lastFontRenderer;
+
+	/* Tick time last drawn */
+	private float lastDrawTick = 1.0F;
+	private int blinkCounter = 1;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Bring the layout up to date, rebuilding it only if any of its inputs have changed.
+	 * @param mc is the Minecraft instance
+	 * @param resolution is the scaled screen resolution of the overlay
+	 * @return this layout
+	 */
+	public HudLayout update(Minecraft mc, ScaledResolution resolution) {
+		Config config = Config.getInstance();
+		int width = resolution.getScaledWidth();
+		int height = resolution.getScaledHeight();
+		int side = BlockPlacer.getPlaceSide();
+		int facing = BlockPlacer.getPlayerFacing(mc.thePlayer);
+		int mopSide = BlockPlacer.getPlaceMopSide();
+		boolean replaceable = BlockPlacer.isPlaceReplaceable();
+
+		if (config.getVersion() != lastConfigVersion || width != lastWidth || height != lastHeight
+				|| side != lastSide || facing != lastFacing || mopSide != lastMopSide
+				|| replaceable != lastReplaceable || mc.fontRenderer != lastFontRenderer) {
+			lastConfigVersion = config.getVersion();
+			lastWidth = width;
+			lastHeight = height;
+			lastSide = side;
+			lastFacing = facing;
+			lastMopSide = mopSide;
+			lastReplaceable = replaceable;
+			lastFontRenderer = mc.fontRenderer;
+			rebuild(mc, config, width, height);
+		}
+		return this;
+	}
+
+	/**
+	 * Count ticks for blinking text - draw when negative, no draw when positive.
+	 * Must be called every frame the reminder text could be drawn.
+	 * @param partialTicks is the partial tick time of the frame
+	 * @return true if the reminder text is in the visible part of the blink
+	 */
+	public boolean updateBlink(float partialTicks) {
+		if (partialTicks <= lastDrawTick) {
+			if (--blinkCounter <= -10) blinkCounter = 10;
+		}
+		lastDrawTick = partialTicks;
+		return (blinkCounter <= 0);
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/**
+	 * Rebuild the strings and positions.
+	 * <p>Calculates the icon position based on {@link Config} icon size and scaled location + offset.
+	 * The facing text is drawn below the icon (or above if there is no room) and the reminder text
+	 * in the middle of the screen.</p>
+	 */
+	private void rebuild(Minecraft mc, Config config, int screenWidth, int screenHeight) {
+		FontRenderer fontRenderer = mc.fontRenderer;
+		iconSize = (config.largeIcon ? Overlay.LARGE_ICON_SIZE : Overlay.SMALL_ICON_SIZE);
+		iconOffset = (config.largeIcon ? Overlay.LARGE_ICON_OFFSET : Overlay.SMALL_ICON_OFFSET);
+
+		// Set position for icon based on % of screen size +/- offset.
+		iconX = Util.bound((int) (config.xScaled
+				* (double) (screenWidth - iconSize) / 100.0)
+				+ config.xOffset, 0, screenWidth - iconSize);
+		iconY = Util.bound((int)(config.yScaled
+				* (double)(screenHeight - iconSize) / 100.0)
+				+ config.yOffset, 0, screenHeight - iconSize);
+
+		// Relative direction below the icon
+		facingText = null;
+		if (config.drawFacingText) {
+			facingText = BlockPlacer.getPlacementText(mc.thePlayer);
+			int stringHeight = MathHelper.ceiling_float_int(fontRenderer.FONT_HEIGHT * config.textScaling);
+			int stringWidth = MathHelper.ceiling_float_int(fontRenderer.getStringWidth(facingText) * config.textScaling);
+			facingX = Util.bound((int) (config.xScaled
+					* (double) (screenWidth - stringWidth) / 100.0)
+					+ config.xOffset, 0, screenWidth - stringWidth);
+			facingY = iconY + iconSize + config.textSpacingGap;
+			if (facingY + stringHeight >= screenHeight) {
+				facingY = iconY - stringHeight - config.textSpacingGap;
+			}
+		}
+
+		// Reminder text in the middle of the screen if placing opposite
+		reminderText = null;
+		if (config.drawReminderText && (reminderText = BlockPlacer.getReminderText(mc.thePlayer)) != null) {
+			int stringWidth = MathHelper.ceiling_float_int(fontRenderer.getStringWidth(reminderText) * config.reminderScaling);
+			int stringHeight = MathHelper.ceiling_float_int(fontRenderer.FONT_HEIGHT * config.reminderScaling);
+			reminderX = (screenWidth - stringWidth) / 2;
+			reminderY = (screenHeight - fontRenderer.FONT_HEIGHT) / 2 - stringHeight;
+		}
+	}
+}
\ No newline at end of file
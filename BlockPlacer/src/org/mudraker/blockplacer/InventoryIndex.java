@@ -0,0 +1,213 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.InventoryPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.packet.Packet16BlockItemSwitch;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer player inventory index.
+ * <p>Indexes the player's hotbar and main inventory slots by item ID and damage so that a stack of
+ * a given item can be found without scanning the inventory. Each distinct item is held once with a
+ * bit mask of the slots holding it. Items without subtypes are indexed under any damage.</p>
+ * <p>The index is kept up to date incrementally - {@link #tick} compares each slot with the stack
+ * it last saw and only re-indexes the slots that changed, and the slots BlockPlacer itself changes
+ * are refreshed as it changes them.</p>
+ * <p>{@link #restock} is called after each placement. If it emptied the held stack, another stack
+ * of the same item is swapped into the hand - selected if it is in the hotbar, otherwise swapped
+ * into the held hotbar slot from the main inventory - so an auto-repeat run or shape carries on.</p>
+ *
+ * <p>Pattern: Singleton Incremental Index</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class InventoryIndex {
+	// Singleton instance enforcement
+	private final static InventoryIndex instance = new InventoryIndex(); // Singleton instance
+	public static InventoryIndex getInstance() { return instance; } // Return singleton for access
+	private InventoryIndex() {} // Singleton: Prevent additional instantiation
+
+	/** Slots indexed - the hotbar (0 to 8) and main inventory (9 to 35) */
+	public static final int SLOTS = 36;
+
+	/** Number of hotbar slots */
+	public static final int HOTBAR = 9;
+
+	/** Slot mask of the hotbar slots */
+	public static final long HOTBAR_MASK = (1L << HOTBAR) - 1;
+
+	/** Damage an item without subtypes is indexed under */
+	public static final int ANY_DAMAGE = 0xFFFF;
+
+	/** Key meaning an empty slot - item ID 0 is never held */
+	private static final int EMPTY = 0;
+
+	// Last seen contents of each slot
+	private final ItemStack[] seenStack = new ItemStack[SLOTS];
+	private final int[] seenKey = new int[SLOTS];
+
+	// Distinct items held and the mask of slots holding each
+	private final int[] keys = new int[SLOTS];
+	private final long[] masks = new long[SLOTS];
+	private int keyCount = 0;
+
+	// Statistics
+	private long restockCount = 0;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Re-index the slots that have changed since the last look. Called once per client tick.
+	 * @param inventory is the player inventory
+	 */
+	public void tick(InventoryPlayer inventory) {
+		for (int slot = 0; slot < SLOTS; slot++) {
+			refresh(inventory, slot);
+		}
+	}
+
+	/**
+	 * @param itemId is the item ID
+	 * @param damage is the item damage
+	 * @return the mask of slots holding the item (bit n for slot n)
+	 */
+	public long getSlots(int itemId, int damage) {
+		return find(key(itemId, damage)) | find(key(itemId, ANY_DAMAGE));
+	}
+
+	/**
+	 * Select a hotbar slot holding an item, telling the server if the slot changes.
+	 * @param mc is the Minecraft instance
+	 * @param entityPlayer is the player
+	 * @param itemId is the item ID
+	 * @param damage is the item damage
+	 * @return true if a hotbar slot holds the item
+	 */
+	public boolean selectHotbarSlot(Minecraft mc, EntityPlayer entityPlayer, int itemId, int damage) {
+		InventoryPlayer inventory = entityPlayer.inventory;
+		refresh(inventory, inventory.currentItem);
+		long hotbar = getSlots(itemId, damage) & HOTBAR_MASK;
+		if (hotbar == 0) return false;
+		if ((hotbar & (1L << inventory.currentItem)) == 0) {
+			select(mc, inventory, Long.numberOfTrailingZeros(hotbar));
+		}
+		return true;
+	}
+
+	/**
+	 * Swap another stack of an item into the hand if the held stack has just run out.
+	 * @param mc is the Minecraft instance
+	 * @param entityPlayer is the player
+	 * @param itemId is the item ID of the stack that was held
+	 * @param damage is the damage of the stack that was held
+	 * @return true if a stack was swapped in
+	 */
+	public boolean restock(Minecraft mc, EntityPlayer entityPlayer, int itemId, int damage) {
+		InventoryPlayer inventory = entityPlayer.inventory;
+		int current = inventory.currentItem;
+		ItemStack held = inventory.mainInventory[current];
+		if (held != null && held.stackSize > 0) return false;
+		if (held != null) inventory.mainInventory[current] = null;
+		refresh(inventory, current);
+		long slots = getSlots(itemId, damage);
+		if (slots == 0) return false;
+		long hotbar = slots & HOTBAR_MASK;
+		if (hotbar != 0) {
+			select(mc, inventory, Long.numberOfTrailingZeros(hotbar));
+		} else {
+			// Player inventory container slots 9 to 35 are the main inventory slots - button is the hotbar slot
+			int slot = Long.numberOfTrailingZeros(slots);
+			mc.playerController.windowClick(entityPlayer.inventoryContainer.windowId, slot, current, 2, entityPlayer);
+			refresh(inventory, slot);
+			refresh(inventory, current);
+			Log.fine("Restocked hotbar slot " + current + " from inventory slot " + slot);
+		}
+		restockCount++;
+		return true;
+	}
+
+	/** @return the number of restocks since start up */
+	public long getRestockCount() {
+		return restockCount;
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** Select a hotbar slot and tell the server */
+	private void select(Minecraft mc, InventoryPlayer inventory, int slot) {
+		inventory.currentItem = slot;
+		mc.thePlayer.sendQueue.addToSendQueue(new Packet16BlockItemSwitch(slot));
+		Log.fine("Selected hotbar slot " + slot);
+	}
+
+	/** Re-index a slot if its stack has changed since it was last seen */
+	private void refresh(InventoryPlayer inventory, int slot) {
+		ItemStack itemStack = inventory.mainInventory[slot];
+		int key = (itemStack == null || itemStack.stackSize <= 0) ? EMPTY
+				: key(itemStack.itemID, itemStack.getHasSubtypes() ? itemStack.getItemDamage() : ANY_DAMAGE);
+		if (itemStack == seenStack[slot] && key == seenKey[slot]) return;
+		seenStack[slot] = itemStack;
+		if (key == seenKey[slot]) return;
+		if (seenKey[slot] != EMPTY) remove(seenKey[slot], slot);
+		if (key != EMPTY) add(key, slot);
+		seenKey[slot] = key;
+	}
+
+	/** @return the index key of an item ID and damage */
+	private static int key(int itemId, int damage) {
+		return (itemId << 16) | (damage & 0xFFFF);
+	}
+
+	/** @return the slot mask of a key, or 0 if no slot holds it */
+	private long find(int key) {
+		for (int n = 0; n < keyCount; n++) {
+			if (keys[n] == key) return masks[n];
+		}
+		return 0L;
+	}
+
+	/** Add a slot to a key */
+	private void add(int key, int slot) {
+		for (int n = 0; n < keyCount; n++) {
+			if (keys[n] == key) {
+				masks[n] |= 1L << slot;
+				return;
+			}
+		}
+		keys[keyCount] = key;
+		masks[keyCount++] = 1L << slot;
+	}
+
+	/** Remove a slot from a key, dropping the key once no slot holds it */
+	private void remove(int key, int slot) {
+		for (int n = 0; n < keyCount; n++) {
+			if (keys[n] == key) {
+				masks[n] &= ~(1L << slot);
+				if (masks[n] == 0) {
+					keyCount--;
+					keys[n] = keys[keyCount];
+					masks[n] = masks[keyCount];
+				}
+				return;
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.Facing;
+import net.minecraft.world.World;
+
+/**
+ * BlockPlacer mirror placement planner.
+ * <p>Turns a placement into its mirror images across the planes at right angles to the axes of
+ * a {@link Config.MirrorMode}, passing through the centre of the mirror origin block. Each image
+ * is a placement in the same {@link ShapePlan#STRIDE} longs form as a shape plan - the packed
+ * position to place against and the side to place on - with the side mirrored through the
+ * {@link Const#SIDE_MIRROR} table. Images that land on the placement itself or on another image
+ * (when the placement lies on a mirror plane) are left out.</p>
+ * <p>{@link #filter} makes one pass of validity checks over the images and drops the ones that
+ * cannot happen, so they can all be issued in the same tick as the placement.</p>
+ *
+ * <p>Pattern: Enforced Static Utility</p>
+ *
+ * @author MudRaker
+ */
+public class MirrorPlan {
+	private MirrorPlan() {} // Static: Prevent instantiation
+
+	/** Most images of one placement - one for each combination of the three axes */
+	public static final int MAX_IMAGES = 7;
+
+	/** Longs per image in a plan: position to place against, then side */
+	public static final int STRIDE = ShapePlan.STRIDE;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Build the mirror images of a placement.
+	 * @param placedPosition is the packed position of the placed block
+	 * @param side is the side it was placed on
+	 * @param axes is the mask of axes to mirror on - see {@link Config.MirrorMode}
+	 * @param origin is the packed position of the mirror origin block
+	 * @param plan receives the images, at least {@link #MAX_IMAGES} * {@link #STRIDE} longs
+	 * @return the number of images, unfiltered
+	 */
+	public static int build(long placedPosition, int side, int axes, long origin, long[] plan) {
+		int x = Coordinate.unpackX(placedPosition), y = Coordinate.unpackY(placedPosition), z = Coordinate.unpackZ(placedPosition);
+		int ox = Coordinate.unpackX(origin), oy = Coordinate.unpackY(origin), oz = Coordinate.unpackZ(origin);
+		int count = 0;
+		for (int mask = 1; mask <= MAX_IMAGES; mask++) {
+			if ((mask & ~axes) != 0) continue;
+			int mirroredSide = side;
+			int mx = x, my = y, mz = z;
+			if ((mask & (1 << Const.MIRROR_X)) != 0) {
+				mx = 2 * ox - x;
+				mirroredSide = Const.SIDE_MIRROR[Const.MIRROR_X][mirroredSide];
+			}
+			if ((mask & (1 << Const.MIRROR_Y)) != 0) {
+				my = 2 * oy - y;
+				mirroredSide = Const.SIDE_MIRROR[Const.MIRROR_Y][mirroredSide];
+			}
+			if ((mask & (1 << Const.MIRROR_Z)) != 0) {
+				mz = 2 * oz - z;
+				mirroredSide = Const.SIDE_MIRROR[Const.MIRROR_Z][mirroredSide];
+			}
+			long target = Coordinate.pack(mx, my, mz);
+			if (target == placedPosition || contains(plan, count, target)) continue;
+			plan[count * STRIDE] = Coordinate.adjacent(target, Facing.oppositeSide[mirroredSide]);
+			plan[count * STRIDE + 1] = mirroredSide;
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Drop the images that cannot be placed, compacting the plan in place. An image is dropped if
+	 * its block position is occupied, out of reach, there is no solid block to place against or it
+	 * can activate, or the held item cannot be placed on that side - the same side check as a single
+	 * placement makes.
+	 * @param plan is a plan from {@link #build}
+	 * @param count is the number of images in the plan
+	 * @param blocks is the block source to check against
+	 * @param session is the placement session whose side check is used
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the player placing
+	 * @param fromX is the X coordinate reach is measured from
+	 * @param fromY is the Y coordinate reach is measured from
+	 * @param fromZ is the Z coordinate reach is measured from
+	 * @param reach is the reach distance
+	 * @return the number of images kept
+	 */
+	public static int filter(long[] plan, int count, BlockSource blocks, PlaceSession session, World theWorld,
+			EntityPlayer entityPlayer, double fromX, double fromY, double fromZ, double reach) {
+		double reachSq = reach * reach;
+		int kept = 0;
+		for (int n = 0; n < count; n++) {
+			long against = plan[n * STRIDE];
+			int side = (int) plan[n * STRIDE + 1];
+			int ax = Coordinate.unpackX(against), ay = Coordinate.unpackY(against), az = Coordinate.unpackZ(against);
+			int id = blocks.getBlockId(ax, ay, az);
+			if (id == 0 || blocks.isReplaceable(ax, ay, az) || CapabilityIndex.isLiquid(id)) continue;
+			if (CapabilityIndex.canActivate(id)) continue; // would be used rather than placed against
+			int x = ax + Facing.offsetsXForSide[side], y = ay + Facing.offsetsYForSide[side], z = az + Facing.offsetsZForSide[side];
+			if (blocks.getBlockId(x, y, z) != 0 && !blocks.isReplaceable(x, y, z)) continue;
+			double dx = x + 0.5D - fromX, dy = y + 0.5D - fromY, dz = z + 0.5D - fromZ;
+			if (dx * dx + dy * dy + dz * dz > reachSq || !session.canPlaceOnSide(theWorld, entityPlayer, against, side)) continue;
+			plan[kept * STRIDE] = against;
+			plan[kept * STRIDE + 1] = side;
+			kept++;
+		}
+		return kept;
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** @return true if one of the first count images places at target */
+	private static boolean contains(long[] plan, int count, long target) {
+		for (int n = 0; n < count; n++) {
+			if (Coordinate.adjacent(plan[n * STRIDE], (int) plan[n * STRIDE + 1]) == target) return true;
+		}
+		return false;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer mouse gesture filter for the MOUSE control mode.
+ * <p>Raw mouse events only add their movement to a running total. Once per rendered frame the
+ * total is smoothed into a velocity and added to the current gesture, and the gesture is passed
+ * to {@link BlockPlacer#mouseShiftPlace} when it reaches {@link Config#mouseThreshold} - so the
+ * side change logic and its world checks run at most once per frame whatever the mouse poll rate.</p>
+ * <p>After a gesture has changed the side, the next one must reach {@link #HYSTERESIS} times the
+ * threshold until the mouse has come to rest, which stops one long sweep stepping the side round
+ * several times. The mouse is at rest when its smoothed movement per frame is within
+ * {@link Config#mouseWobble} on both axes - this also drops any slow drift built up in the gesture.</p>
+ *
+ * <p>Pattern: Singleton</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class MouseFilter {
+	// Singleton instance enforcement
+	private final static MouseFilter instance = new MouseFilter(); // Singleton instance
+	public static MouseFilter getInstance() { return instance; } // Return singleton for access
+	private MouseFilter() {} // Singleton: Prevent additional instantiation
+
+	/** Weight of the latest frame's movement in the smoothed velocity (0 to 1) */
+	public static final float SMOOTHING = 0.5F;
+
+	/** Threshold multiplier for a further gesture before the mouse has come to rest */
+	public static final int HYSTERESIS = 2;
+
+	// Movement of the raw mouse events since the last frame
+	private int pendingX, pendingY;
+
+	// Smoothed movement per frame
+	private float velocityX, velocityY;
+
+	// Gesture built up since the mouse was last at rest or the side last changed
+	private float gestureX, gestureY;
+
+	/** Has the mouse come to rest since the side last changed? */
+	private boolean armed = true;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Add the movement of a raw mouse event. Called for every mouse event in MOUSE control mode.
+	 * @param dx is the horizontal mouse movement
+	 * @param dy is the vertical mouse movement
+	 */
+	public void accumulate(int dx, int dy) {
+		pendingX += dx;
+		pendingY += dy;
+	}
+
+	/**
+	 * Filter the movement since the last frame and change the place side if the gesture is
+	 * big enough. Called once at the start of every rendered frame.
+	 */
+	public void frame() {
+		if (!BlockPlacer.isPlaceEnabled() || Config.getInstance().placeControlMode != Config.ControlMode.MOUSE) {
+			reset();
+			return;
+		}
+		Config config = Config.getInstance();
+		velocityX += (pendingX - velocityX) * SMOOTHING;
+		velocityY += (pendingY - velocityY) * SMOOTHING;
+		pendingX = 0;
+		pendingY = 0;
+
+		// At rest - drop any drift and allow the next gesture at the normal threshold
+		if (Math.round(Math.abs(velocityX)) <= config.mouseWobble && Math.round(Math.abs(velocityY)) <= config.mouseWobble) {
+			gestureX = 0.0F;
+			gestureY = 0.0F;
+			armed = true;
+			return;
+		}
+
+		gestureX += velocityX;
+		gestureY += velocityY;
+		int dx = Math.round(gestureX);
+		int dy = Math.round(gestureY);
+		int threshold = armed ? config.mouseThreshold : config.mouseThreshold * HYSTERESIS;
+		if (Math.abs(dx) + Math.abs(dy) >= Math.max(threshold, 1)) {
+			TraceRecorder.getInstance().mouse(dx, dy);
+			BlockPlacer.mouseShiftPlace(dx, dy);
+			gestureX = 0.0F;
+			gestureY = 0.0F;
+			armed = false;
+		}
+	}
+
+	/** Forget all movement - used when placing is off or not in MOUSE control mode */
+	public void reset() {
+		pendingX = pendingY = 0;
+		velocityX = velocityY = 0.0F;
+		gestureX = gestureY = 0.0F;
+		armed = true;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.INetworkManager;
+import net.minecraft.network.packet.Packet250CustomPayload;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.common.network.IPacketHandler;
+import cpw.mods.fml.common.network.Player;
+
+/**
+ * BlockPlacer bulk placement channel.
+ * <p>Custom payload channel that carries a batch of placements from the client to the server in
+ * a single packet, and a single acknowledgement bitmap back. Only used when the server also has
+ * BlockPlacer installed and {@link Config#placeBulkChannel} is on - otherwise every placement
+ * goes through the vanilla place packet as before.</p>
+ * <p>A batch packet holds a protocol byte, a type byte, a sequence number and a count followed by
+ * the packed position, side and hit offsets (in 16ths as the vanilla place packet) for each
+ * placement. An acknowledgement holds the same header followed by a bitmap with a bit set for
+ * each placement the server made. Batches received by the server are handed to the
+ * {@link BulkServer} and acknowledgements received by the client to the registered
+ * {@link AckHandler}, so this class is safe to load on either side.</p>
+ *
+ * <p>Pattern: Forge Packet Handler</p>
+ *
+ * @author MudRaker
+ */
+public class PlaceChannel implements IPacketHandler {
+
+	/** Custom payload channel name (16 characters maximum) */
+	public static final String CHANNEL = "MR|BlockPlacer";
+
+	/** Maximum placements in one batch - one bit each in the acknowledgement bitmap */
+	public static final int MAX_BATCH = 64;
+
+	private static final byte PROTOCOL = 1;
+	private static final byte TYPE_BATCH = 0;
+	private static final byte TYPE_ACK = 1;
+
+	/** Receiver of acknowledgements on the client side */
+	public interface AckHandler {
+		/**
+		 * @param sequence is the sequence number of the batch acknowledged
+		 * @param count is the number of placements in the batch
+		 * @param placedMask has bit n set if placement n of the batch was made by the server
+		 */
+		void onAck(int sequence, int count, long placedMask);
+	}
+
+	private static AckHandler ackHandler = null;
+
+	/**
+	 * Register the client side receiver of acknowledgements.
+	 * @param handler is the acknowledgement handler
+	 */
+	public static void setAckHandler(AckHandler handler) {
+		ackHandler = handler;
+	}
+
+	/** Instantiated once by Forge Mod Loader from the {@link BlockPlacerMod} declaration */
+	public PlaceChannel() {}
+
+	/**
+	 * Decode a batch or acknowledgement packet and pass it on.
+	 * @see cpw.mods.fml.common.network.IPacketHandler#onPacketData(net.minecraft.network.INetworkManager, net.minecraft.network.packet.Packet250CustomPayload, cpw.mods.fml.common.network.Player)
+	 */
+	@Override
+	public void onPacketData(INetworkManager manager, Packet250CustomPayload packet, Player player) {
+		if (!CHANNEL.equals(packet.channel) || packet.data == null) return;
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet.data));
+		try {
+			if (in.readByte() != PROTOCOL) {
+				Log.fine("PlaceChannel ignoring packet with unknown protocol");
+				return;
+			}
+			byte type = in.readByte();
+			int sequence = in.readInt();
+			int count = in.readUnsignedByte();
+			if (count == 0 || count > MAX_BATCH) {
+				Log.fine("PlaceChannel ignoring packet with bad count " + count);
+				return;
+			}
+			if (type == TYPE_BATCH && player instanceof EntityPlayerMP) {
+				long[] positions = new long[count];
+				byte[] sides = new byte[count];
+				byte[] hits = new byte[count * 3];
+				for (int n = 0; n < count; n++) {
+					positions[n] = in.readLong();
+					sides[n] = in.readByte();
+					in.readFully(hits, n * 3, 3);
+				}
+				BulkServer.getInstance().queue((EntityPlayerMP) player, sequence, positions, sides, hits, count);
+			} else if (type == TYPE_ACK && ackHandler != null) {
+				ackHandler.onAck(sequence, count, in.readLong());
+			}
+		} catch (IOException e) {
+			Log.fine("PlaceChannel ignoring truncated packet - " + e);
+		}
+	}
+
+	/**
+	 * Encode a batch of placements.
+	 * @param sequence is the batch sequence number
+	 * @param positions are the packed positions to place against
+	 * @param sides are the sides to place on
+	 * @param hits are the hit offsets in 16ths - 3 per placement
+	 * @param count is the number of placements (1 to {@link #MAX_BATCH})
+	 * @return the packet to send to the server
+	 */
+	public static Packet250CustomPayload batchPacket(int sequence, long[] positions, byte[] sides, byte[] hits, int count) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(7 + count * 12);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			writeHeader(out, TYPE_BATCH, sequence, count);
+			for (int n = 0; n < count; n++) {
+				out.writeLong(positions[n]);
+				out.writeByte(sides[n]);
+				out.write(hits, n * 3, 3);
+			}
+		} catch (IOException e) {
+			// Can't happen writing to a byte array
+		}
+		return new Packet250CustomPayload(CHANNEL, bytes.toByteArray());
+	}
+
+	/**
+	 * Encode an acknowledgement.
+	 * @param sequence is the sequence number of the batch acknowledged
+	 * @param count is the number of placements in the batch
+	 * @param placedMask has bit n set if placement n of the batch was made
+	 * @return the packet to send to the client
+	 */
+	public static Packet250CustomPayload ackPacket(int sequence, int count, long placedMask) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(15);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			writeHeader(out, TYPE_ACK, sequence, count);
+			out.writeLong(placedMask);
+		} catch (IOException e) {
+			// Can't happen writing to a byte array
+		}
+		return new Packet250CustomPayload(CHANNEL, bytes.toByteArray());
+	}
+
+	/** Write the common packet header */
+	private static void writeHeader(DataOutputStream out, byte type, int sequence, int count) throws IOException {
+		out.writeByte(PROTOCOL);
+		out.writeByte(type);
+		out.writeInt(sequence);
+		out.writeByte(count);
+	}
+}
\ No newline at end of file
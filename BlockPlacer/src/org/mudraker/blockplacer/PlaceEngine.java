@@ -0,0 +1,292 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.settings.GameSettings;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer paced hold-to-place engine.
+ * <p>While {@link Config#placeHoldRepeat} is enabled and the use item button is held, issues a
+ * placement every {@link Config#placeHoldInterval} ticks for as long as the {@link PlacementLedger}
+ * has fewer than {@link Config#placeMaxPending} placements the server has still to show or
+ * acknowledge - see {@link PlacementLedger#getAwaitingCount}. Vanilla repeat clicks are routed
+ * through the same pacing so the two never double up.</p>
+ * <p>Also looks ahead along the auto-repeat direction for a free target within reach, stopping at
+ * the first obstruction. Placement stops when there is none rather than clicking at blocked positions.</p>
+ * <p>When {@link Config#placeShape} is not SINGLE a click starts a {@link ShapePlan} instead, which
+ * is issued in order under the same pacing - a burst of up to the placement cap every interval -
+ * without the button being held.</p>
+ *
+ * <p>Pattern: Singleton Tick Worker</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class PlaceEngine {
+	// Singleton instance enforcement
+	private final static PlaceEngine instance = new PlaceEngine(); // Singleton instance
+	public static PlaceEngine getInstance() { return instance; } // Return singleton for access
+	private PlaceEngine() {} // Singleton: Prevent additional instantiation
+
+	/** Furthest number of positions looked ahead for a free target */
+	public static final int MAX_LOOKAHEAD = 16;
+
+	/** Is there a free target within reach along the auto-repeat direction? */
+	private boolean lookaheadFound = false;
+
+	// Inputs the lookahead was made from
+	private long lookaheadPosition, lookaheadPlayer;
+	private int lookaheadSide = -1;
+	private boolean lookaheadReplaceable;
+	private long lookaheadChangeCount = -1;
+	private int lookaheadPending = -1;
+
+	/** Reusable uncached world reader for targets outside the placement neighbourhood */
+	private final BlockSnapshot.WorldSource blocks = new BlockSnapshot.WorldSource();
+
+	/** Filtered shape plan being placed, or null if none */
+	private long[] shape = null;
+	private int shapeCount, shapeNext;
+
+	/** Tick of the last placement issued */
+	private long lastIssueTick = Long.MIN_VALUE / 2;
+
+	// Statistics
+	private long issuedCount = 0;
+	private long throttledCount = 0;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/** @return true if hold-to-place is enabled and owns the placement pacing */
+	public boolean isEnabled() {
+		return Config.getInstance().placeHoldRepeat;
+	}
+
+	/**
+	 * Issue a placement while the use item button is held. Called once per client tick.
+	 * @param mc is the Minecraft instance
+	 * @param canPlace is true if a valid placement has been established
+	 * @param tick is the current client tick
+	 */
+	public void tick(Minecraft mc, boolean canPlace, long tick) {
+		if (shape != null) {
+			tickShape(mc, tick);
+		} else if (isEnabled() && canPlace && BlockPlacer.isPlaceEnabled()
+				&& GameSettings.isKeyDown(mc.gameSettings.keyBindUseItem)) {
+			tryPlace(mc, mc.thePlayer, tick);
+		}
+	}
+
+	/**
+	 * Issue a placement if the pacing interval has passed and the unconfirmed placement cap allows.
+	 * @param mc is the Minecraft instance
+	 * @param entityPlayer is the player placing
+	 * @param tick is the current client tick
+	 * @return true if a placement was issued
+	 */
+	public boolean tryPlace(Minecraft mc, EntityPlayer entityPlayer, long tick) {
+		if (getAllowance(tick, lastIssueTick) == 0 || !hasTarget(mc)) {
+			return false;
+		}
+		lastIssueTick = tick;
+		issuedCount++;
+		BlockPlacer.doRightClick(entityPlayer);
+		return true;
+	}
+
+	/**
+	 * @param mc is the Minecraft instance
+	 * @return true if there is a free target within reach along the auto-repeat direction, looking
+	 * 		again only if the placement has changed
+	 */
+	public boolean hasTarget(Minecraft mc) {
+		refreshLookahead(mc);
+		return lookaheadFound;
+	}
+
+	/**
+	 * Return the number of placements that may be issued in a burst - none until the pacing interval
+	 * has passed, then up to the placement cap less the placements the server has still to show or
+	 * acknowledge. Shared by hold-to-place, shapes and the {@link StampPlacer}.
+	 * @param tick is the current client tick
+	 * @param lastTick is the tick of the last burst issued
+	 * @return the number of placements allowed
+	 */
+	static int getAllowance(long tick, long lastTick) {
+		Config config = Config.getInstance();
+		if (tick - lastTick < config.placeHoldInterval) {
+			return 0;
+		}
+		int allowance = config.placeMaxPending - PlacementLedger.getInstance().getAwaitingCount();
+		if (allowance <= 0) {
+			instance.throttledCount++;
+			return 0;
+		}
+		return allowance;
+	}
+
+	/**
+	 * Plan the shape set by {@link Config#placeShape} from the current placement and start placing it.
+	 * Ignored while a shape is still being placed.
+	 * @param mc is the Minecraft instance
+	 * @param entityPlayer is the player placing
+	 * @return the number of placements planned
+	 */
+	public int startShape(Minecraft mc, EntityPlayer entityPlayer) {
+		if (shape != null) return 0;
+		Config config = Config.getInstance();
+		long[] plan = ShapePlan.build(config.placeShape, config.placeShapeSize, BlockPlacer.getPlacePosition(),
+				BlockPlacer.getPlaceSide(), BlockPlacer.isPlaceReplaceable(), BlockPlacer.getPlayerFacing(entityPlayer));
+		blocks.set(mc.theWorld);
+		int count = ShapePlan.filter(plan, blocks, BlockPlacer.getSession(), mc.theWorld, entityPlayer,
+				entityPlayer.posX, entityPlayer.posY, entityPlayer.posZ, (double) mc.playerController.getBlockReachDistance());
+		Log.fine("Shape " + config.placeShape + " size " + config.placeShapeSize + " planned " + count + " of "
+				+ (plan.length / ShapePlan.STRIDE) + " placements");
+		if (count > 0) {
+			shape = plan;
+			shapeCount = count;
+			shapeNext = 0;
+		}
+		return count;
+	}
+
+	/** Stop placing the current shape - placements already issued are still confirmed */
+	public void cancelShape() {
+		if (shape != null) {
+			Log.fine("Shape cancelled with " + (shapeCount - shapeNext) + " placements left");
+			shapeNext = shapeCount;
+		}
+	}
+
+	/**
+	 * Drop the current shape and the lookahead. Called when the client world is unloaded,
+	 * as both hold positions in that world.
+	 */
+	public void clear() {
+		if (shape != null) Log.fine("Shape dropped with " + (shapeCount - shapeNext) + " placements left");
+		shape = null;
+		shapeCount = shapeNext = 0;
+		lookaheadFound = false;
+		lookaheadChangeCount = -1;
+		blocks.set(null); // let the old world go
+	}
+
+	/** @return true if a shape is being placed or its placements are awaiting the server */
+	public boolean isShapeActive() {
+		return shape != null;
+	}
+
+	/** @return the number of shape placements still to issue */
+	public int getShapeRemaining() {
+		return (shape == null) ? 0 : shapeCount - shapeNext;
+	}
+
+	/** @return the number of placements issued by hold-to-place since start up */
+	public long getIssuedCount() {
+		return issuedCount;
+	}
+
+	/** @return the number of ticks placement has waited for the server since start up */
+	public long getThrottledCount() {
+		return throttledCount;
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/**
+	 * Issue the next burst of placements of the shape plan once the pacing interval has passed - see
+	 * {@link #getAllowance}. The shape is finished once all its placements are confirmed.
+	 * @param mc is the Minecraft instance
+	 * @param tick is the current client tick
+	 */
+	private void tickShape(Minecraft mc, long tick) {
+		EntityPlayer entityPlayer = mc.thePlayer;
+		if (!BlockPlacer.isPlaceEnabled() || entityPlayer.getHeldItem() == null) {
+			cancelShape();
+		}
+		PlacementLedger ledger = PlacementLedger.getInstance();
+		if (shapeNext >= shapeCount) {
+			if (ledger.getAwaitingCount() == 0) {
+				Log.fine("Shape complete");
+				shape = null;
+			}
+			return;
+		}
+		int allowance = getAllowance(tick, lastIssueTick);
+		if (allowance == 0) {
+			return;
+		}
+		lastIssueTick = tick;
+		for (int n = 0; n < allowance && shapeNext < shapeCount && entityPlayer.getHeldItem() != null; n++) {
+			BlockPlacer.placeAt(entityPlayer, ShapePlan.getPosition(shape, shapeNext), ShapePlan.getSide(shape, shapeNext));
+			shapeNext++;
+			issuedCount++;
+		}
+	}
+
+	/**
+	 * Look ahead for a free target again if the place position, side, player position, nearby
+	 * blocks or pending placements have changed since last time.
+	 * @param mc is the Minecraft instance
+	 */
+	private void refreshLookahead(Minecraft mc) {
+		EntityPlayer entityPlayer = mc.thePlayer;
+		long position = BlockPlacer.getPlacePosition();
+		int side = BlockPlacer.getPlaceSide();
+		boolean replaceable = BlockPlacer.isPlaceReplaceable();
+		long player = Coordinate.pack((int) Math.floor(entityPlayer.posX), (int) Math.floor(entityPlayer.posY),
+				(int) Math.floor(entityPlayer.posZ));
+		long changeCount = PlaceTracker.getInstance().getChangeCount();
+		int pending = PlacementLedger.getInstance().getPendingCount();
+
+		if (position == lookaheadPosition && side == lookaheadSide && replaceable == lookaheadReplaceable
+				&& player == lookaheadPlayer && changeCount == lookaheadChangeCount && pending == lookaheadPending) {
+			return;
+		}
+		lookaheadPosition = position;
+		lookaheadSide = side;
+		lookaheadReplaceable = replaceable;
+		lookaheadPlayer = player;
+		lookaheadChangeCount = changeCount;
+		lookaheadPending = pending;
+
+		// A replaceable position is replaced in place - the repeat direction is not known until then
+		if (replaceable) {
+			lookaheadFound = true;
+			return;
+		}
+
+		World theWorld = mc.theWorld;
+		double reach = (double) mc.playerController.getBlockReachDistance();
+		double reachSq = reach * reach;
+		PlacementLedger ledger = PlacementLedger.getInstance();
+		blocks.set(theWorld);
+		lookaheadFound = false;
+		long target = position;
+		for (int n = 0; n < MAX_LOOKAHEAD && !lookaheadFound; n++) {
+			target = Coordinate.adjacent(target, side);
+			int x = Coordinate.unpackX(target), y = Coordinate.unpackY(target), z = Coordinate.unpackZ(target);
+			if (entityPlayer.getDistanceSq(x + 0.5D, y + 0.5D, z + 0.5D) > reachSq) break;
+			if (ledger.isPending(target)) continue; // already placed, awaiting confirmation
+			if (blocks.getBlockId(x, y, z) != 0 && !blocks.isReplaceable(x, y, z)) break;
+			lookaheadFound = true;
+		}
+	}
+}
\ No newline at end of file
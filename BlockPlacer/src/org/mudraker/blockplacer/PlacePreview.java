@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer auto-repeat preview.
+ * <p>Holds the next {@link Config#framePreviewCount} positions that auto-repeat will place at
+ * beyond the current wire frame, each validated ahead of time in the same way as the auto-repeat
+ * step itself. The run stops at the first obstruction or the edge of reach.</p>
+ * <p>The run is held in a ring so that when a block lands and the wire frame moves on to the
+ * first preview position the run is advanced by one - only the new tail position is validated.
+ * It is only rebuilt when the side, held item or player position changes, or the wire frame
+ * moves anywhere else.</p>
+ *
+ * <p>Pattern: Singleton</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class PlacePreview {
+	// Singleton instance enforcement
+	private final static PlacePreview instance = new PlacePreview(); // Singleton instance
+	public static PlacePreview getInstance() { return instance; } // Return singleton for access
+	private PlacePreview() {} // Singleton: Prevent additional instantiation
+
+	/** Maximum number of positions previewed */
+	public static final int MAX_PREVIEW = 16;
+
+	/** Ring of packed preview positions - nearest first starting at head */
+	private final long[] positions = new long[MAX_PREVIEW];
+	private int head = 0;
+	private int count = 0;
+
+	/** Has the run reached an obstruction or the edge of reach? */
+	private boolean ended;
+
+	/** Incremented every time the previewed positions change */
+	private int version = 0;
+
+	// Inputs the run was built from
+	private long start;
+	private int side = -1;
+	private int wanted;
+	private long player;
+	private ItemStack itemStack;
+	private int itemId, itemDamage;
+	private long changeCount = -1;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Bring the preview up to date with the placement just established. Called once per client tick.
+	 * @param mc is the Minecraft instance
+	 * @param valid is true if a wire frame is being drawn for the placement
+	 */
+	public void update(Minecraft mc, boolean valid) {
+		Config config = Config.getInstance();
+		int newWanted = (valid && config.placeAutoRpt && !BlockPlacer.isPlaceReplaceable()) ? config.framePreviewCount : 0;
+		if (newWanted == 0) {
+			if (count > 0) {
+				count = 0;
+				version++;
+			}
+			side = -1;
+			return;
+		}
+
+		EntityPlayer entityPlayer = mc.thePlayer;
+		int newSide = BlockPlacer.getPlaceSide();
+		long newStart = Coordinate.adjacent(BlockPlacer.getPlacePosition(), newSide); // the wire frame position
+		long newPlayer = Coordinate.pack((int) Math.floor(entityPlayer.posX), (int) Math.floor(entityPlayer.posY),
+				(int) Math.floor(entityPlayer.posZ));
+		ItemStack newItemStack = entityPlayer.getHeldItem();
+		int newItemId = (newItemStack == null) ? 0 : newItemStack.itemID;
+		int newItemDamage = (newItemStack == null) ? 0 : newItemStack.getItemDamage();
+		long newChangeCount = PlaceTracker.getInstance().getChangeCount();
+
+		if (newSide == side && newWanted == wanted && newPlayer == player && newItemStack == itemStack
+				&& newItemId == itemId && newItemDamage == itemDamage) {
+			// Nothing has changed
+			if (newStart == start && newChangeCount == changeCount) {
+				return;
+			}
+			// A block landed and the wire frame moved on to the first preview position
+			if (count > 0 && newStart == positions[head]) {
+				head = (head + 1) % MAX_PREVIEW;
+				count--;
+				start = newStart;
+				changeCount = newChangeCount;
+				extend(mc);
+				version++;
+				return;
+			}
+		}
+
+		// Anything else - rebuild the run from the wire frame position
+		start = newStart;
+		side = newSide;
+		wanted = newWanted;
+		player = newPlayer;
+		itemStack = newItemStack;
+		itemId = newItemId;
+		itemDamage = newItemDamage;
+		changeCount = newChangeCount;
+		head = 0;
+		count = 0;
+		ended = false;
+		extend(mc);
+		version++;
+	}
+
+	/** @return the number of positions previewed */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * @param n is the preview index (0 is the position after the wire frame)
+	 * @return the packed preview position - see {@link #getCount}
+	 */
+	public long get(int n) {
+		return positions[(head + n) % MAX_PREVIEW];
+	}
+
+	/** @return the packed wire frame position the preview runs from */
+	public long getStart() {
+		return start;
+	}
+
+	/** @return the preview version - any change in value means the previewed positions have changed */
+	public int getVersion() {
+		return version;
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/**
+	 * Validate and append positions to the tail of the run until it is as long as wanted
+	 * or reaches an obstruction or the edge of reach.
+	 * @param mc is the Minecraft instance
+	 */
+	private void extend(Minecraft mc) {
+		EntityPlayer entityPlayer = mc.thePlayer;
+		double reach = (double) mc.playerController.getBlockReachDistance();
+		double reachSq = reach * reach;
+		long last = (count > 0) ? get(count - 1) : start;
+		while (!ended && count < wanted) {
+			long next = Coordinate.adjacent(last, side);
+			if (entityPlayer.getDistanceSq(Coordinate.unpackX(next) + 0.5D, Coordinate.unpackY(next) + 0.5D,
+					Coordinate.unpackZ(next) + 0.5D) > reachSq
+					|| !BlockPlacer.canRepeatOnSide(mc.theWorld, entityPlayer, last, side)) {
+				ended = true;
+				break;
+			}
+			positions[(head + count) % MAX_PREVIEW] = next;
+			count++;
+			last = next;
+		}
+	}
+}
\ No newline at end of file
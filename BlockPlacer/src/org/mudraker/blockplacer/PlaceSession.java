@@ -0,0 +1,1010 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockVine;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemBlock;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Direction;
+import net.minecraft.util.Facing;
+import net.minecraft.util.MathHelper;
+import net.minecraft.util.MovingObjectPosition;
+import net.minecraft.world.World;
+
+import org.mudraker.Log;
+
+/**
+ * BlockPlacer per-player placement session.
+ * <p>Holds the placement state of one player (enabled, ray trace target, place position, side and
+ * replaceable state) and the placement solver that establishes and moves it. The solver works only
+ * from the {@link EntityPlayer} and {@link World} it is given so it can run on either side and for
+ * any number of players at once. Each session is only ever used by one thread at a time - the one
+ * handling its player.</p>
+ * <p>Server side sessions are held in a concurrent map keyed by player name - see {@link #forPlayer}.
+ * They carry the player's queued bulk placements for the {@link BulkServer}, which validates each one
+ * through {@link #canPlaceOnSide}, and are removed by the {@link SessionTracker} when the player logs
+ * out. The solver itself is not run on the server - placements are still chosen by the client.
+ * The client keeps its own session for the local player (see {@link BlockPlacer}) rather than
+ * sharing the map with an integrated server running in the same JVM.</p>
+ * <p>The base session re-reads the world every tick. Subclasses can watch the world for changes
+ * instead by overriding {@link #getChangeStamp} and {@link #watchCentre}. The world and player are
+ * only read through the side specific hooks, so a subclass can also run the solver against a
+ * {@link BlockSource} and a recorded player view - see {@link HeadlessSession}.</p>
+ *
+ * <p>Pattern: Per-player Mutable</p>
+ *
+ * @author MudRaker
+ */
+public class PlaceSession {
+
+	/** Server side sessions by player name */
+	private static final ConcurrentHashMap<String, PlaceSession> sessions = new ConcurrentHashMap<String, PlaceSession>();
+
+	/** A constant dirt itemstack for use as a default if needed when checking if can place. */
+	private static final ItemBlock DIRT = (ItemBlock) Item.itemsList[Block.dirt.blockID]; // local constant
+
+	// **************************************
+	// internal state variables
+	// **************************************
+
+	/** Main on/off flag for the player */
+	boolean placeEnabled = false;
+
+	/** Do we need to reinitialise the place location? */
+	boolean placeReinit = true;
+
+	/** Should we draw the overlay text for the current placement? */
+	boolean drawText = false;
+
+	/** Packed position of the block the mouse is pointing at - used to detect movement */
+	long placeMopPosition = 0L;
+
+	/** Side of the block the mouse is pointing at, or -1 if no ray trace has been recorded yet */
+	int placeMopSide = -1;
+
+	/** Player eye position and rotation when the placeMop was last confirmed by a ray trace */
+	private double viewX, viewY, viewZ;
+	private float viewYaw, viewPitch;
+
+	/**
+	 * Packed XYZ co-ordinate of the block we are placing against - see {@link Coordinate#pack}
+	 * May not be what mouse is pointing at if autoRpt is on.
+	 * Held as a packed long so stepping the position never allocates.
+	 */
+	long placePosition = 0L;
+
+	/** Which side of the placePosition should we place on? */
+	int placeSide = 0;
+
+	/** Is the placePosition replaceable? */
+	boolean placeReplaceable;
+
+	/**
+	 * Side validity mask for the {@link maskPosition} - see {@link SideSolver}.
+	 * Only re-evaluated when the position or held item changes or the change stamp moves on.
+	 */
+	private int sideMask;
+
+	/** Packed position the sideMask was evaluated for */
+	private long maskPosition = 0L;
+
+	/** Held item the sideMask was evaluated for */
+	private ItemStack maskItemStack;
+
+	/** Held item ID and damage the sideMask was evaluated for (stacks are mutable) */
+	private int maskItemId, maskItemDamage;
+
+	/** Change stamp the sideMask was evaluated at, or -1 if never evaluated */
+	private long maskChangeStamp = -1;
+
+	/** Was a wire frame drawn for the last established placement? */
+	boolean placeDrawn = false;
+
+	/** Snapshot of the blocks around the place position - see {@link getNeighbourhood} */
+	private final BlockSnapshot neighbourhood = new BlockSnapshot(); // reusable structure object
+
+	/** Server side bulk placement batches waiting, oldest first - see {@link BulkServer} */
+	final ConcurrentLinkedQueue<BulkServer.Batch> batches = new ConcurrentLinkedQueue<BulkServer.Batch>();
+
+	/** Sessions are created by {@link #forPlayer} or by a client subclass */
+	protected PlaceSession() {}
+
+	// **************************************
+	// Session map
+	// **************************************
+
+	/**
+	 * Return the server side session for a player, creating it if this is the first use.
+	 * @param entityPlayer is the player
+	 * @return the player's session
+	 */
+	public static PlaceSession forPlayer(EntityPlayer entityPlayer) {
+		PlaceSession session = sessions.get(entityPlayer.username);
+		if (session == null) {
+			PlaceSession created = new PlaceSession();
+			session = sessions.putIfAbsent(entityPlayer.username, created);
+			if (session == null) session = created;
+		}
+		return session;
+	}
+
+	/**
+	 * Forget the server side session for a player, e.g. when they log out.
+	 * @param entityPlayer is the player
+	 */
+	public static void remove(EntityPlayer entityPlayer) {
+		sessions.remove(entityPlayer.username);
+	}
+
+	/** @return the number of server side sessions */
+	public static int getSessionCount() {
+		return sessions.size();
+	}
+
+	/** @return a live view of the server side sessions */
+	static Collection<PlaceSession> getSessions() {
+		return sessions.values();
+	}
+
+	// **************************************
+	// Getters and Setters
+	// **************************************
+
+	/** @returns true if BlockPlacer is enabled else false */
+	public boolean isPlaceEnabled() {
+		return placeEnabled;
+	}
+
+	/** @param enable BlockPlacer if true or disable if false */
+	public void setPlaceEnabled(boolean enable) {
+		if (enable != placeEnabled) {
+			changePlaceEnabled(enable);
+			Log.info("BlockPlacer mode " + (placeEnabled ? "Enabled" : "Disabled"));
+			placeReinit = true;
+		}
+	}
+
+	/**
+	 * Toggle the current BlockPlacer enable status
+	 * @return the enable status after toggling
+	 */
+	public boolean togglePlaceEnabled() {
+		changePlaceEnabled(!placeEnabled);
+		Log.info("BlockPlacer mode " + (placeEnabled ? "Enabled" : "Disabled"));
+		placeReinit = true;
+		return placeEnabled;
+	}
+
+	/**
+	 * Set the enable status, notifying {@link onPlaceEnabled} if it changes.
+	 * All changes to placeEnabled go through here.
+	 * @param enable is the new enable status
+	 */
+	void changePlaceEnabled(boolean enable) {
+		if (enable != placeEnabled) {
+			placeEnabled = enable;
+			onPlaceEnabled(enable);
+		}
+	}
+
+	/** @returns the packed place position - see {@link Coordinate#pack} */
+	public long getPlacePosition() {
+		return placePosition;
+	}
+
+	/** @returns the side of the place position that will be placed on */
+	public int getPlaceSide() {
+		return placeSide;
+	}
+
+	/** @returns true if the place position is a replaceable block that will be replaced */
+	public boolean isPlaceReplaceable() {
+		return placeReplaceable;
+	}
+
+	/** @returns the side of the block the mouse is pointing at, or -1 if no ray trace has been recorded yet */
+	public int getPlaceMopSide() {
+		return placeMopSide;
+	}
+
+	// **************************************
+	// Placement solver
+	// **************************************
+
+	/**
+	 * Worker that establishes the correct position to draw the selection wire frame
+	 * from a ray trace target.
+	 * @param theWorld is the world the player is in
+	 * @param entityPlayer is the player placing
+	 * @param mop is the ray trace target
+	 * @param drawPosition (IN/OUT) updated with wire frame draw coordinate (if valid).
+	 * @return the wire frame draw coordinate if it should be drawn, or null if there is no valid placement
+	 */
+	public Coordinate evaluatePlacement(World theWorld, EntityPlayer entityPlayer, MovingObjectPosition mop, Coordinate drawPosition) {
+		Config config = Config.getInstance();
+		boolean isValid = isCurrentPlaceValid(getNeighbourhood(theWorld));
+		boolean shifted = false;
+
+		// check if the place location needs to be reset
+		if (placeReinit || (shifted = mouseShifted(mop)) || !isValid) {
+			if (placeReinit) {
+				Log.fine("Reset placing - Forced reinitialise to " + mop.blockX + "," + mop.blockY + "," + mop.blockZ + "/" + mop.sideHit);
+			} else if (config.placeAutoOff) {
+				Log.info("Place mode auto disabled - selection changed ");
+				changePlaceEnabled(false);
+				return null; // FORCED EARLY EXIT
+			} else if (!shifted && !isValid) {
+				Log.fine("Block at placePosition " + Coordinate.format(placePosition) + " absent - Reset");
+				placeReset(theWorld);
+			} else {
+				Log.fine("Reset placing - Mouse shift " + Coordinate.format(placeMopPosition) + "/" + placeMopSide + " to "
+						+ mop.blockX + "," + mop.blockY + "," + mop.blockZ + "/" + mop.sideHit);
+			}
+			placeReinit = false;
+			placeMopPosition = Coordinate.pack(mop);
+			placeMopSide = mop.sideHit;
+			placePosition = Coordinate.pack(mop);
+			placeSide = mop.sideHit;
+			placeReplaceable = checkIfPositionIsReplaceable(getNeighbourhood(theWorld));
+			if (!placeReplaceable && config.placeSmartStart && allowSmartStart()) {
+				setDefaultPlace (theWorld, entityPlayer, placeSide); // ignore failure, just leave on sideHit if can't find anything better
+			}
+		}
+
+		// Check placement location and fix if not valid - exit if no valid position
+		if (!SideSolver.isValid(getSideMask(theWorld, entityPlayer, placePosition), placeSide)) {
+			Log.fine("Initial start location is illegal");
+			if (!adjustPlace(theWorld, entityPlayer, false, true)) {
+				Log.fine("Can't find ANY location & can't place what we are holding here");
+				if (!isSneaking(entityPlayer)) return null; // FORCED EXIT
+			}
+		}
+
+		// If detect devices is enabled, check if block can activate and exit if it does/might.
+		if (!isSneaking(entityPlayer) && config.placeDetectDevices && canBlockActivate(getNeighbourhood(theWorld), placePosition)) {
+			Log.fine("Can't find ANY location & can't place what we are holding here");
+			return null; // FORCED EXIT
+		}
+
+		// Record that relative position and/or reminder text should be drawn next render if enabled in config
+		drawText = (config.drawFacingText || config.drawReminderText);
+
+		// Set draw position
+		if (placeReplaceable)
+			return drawPosition.set(placePosition);
+		else
+			return drawPosition.setAdjacentOnSide(placePosition, placeSide);
+	}
+
+	/**
+	 * Worker function that handles successful placement of a block.
+	 * <p>Implements the core auto-off and auto-repeat functions.</p>
+	 * <p>Handles setting position after replacing a replaceable block.</p>
+	 * <p>Also gives the session the chance to {@link #refocus} the ray trace on the newly placed
+	 * block if it obscures the existing one - this stops block placer from thinking that the 
+	 * mouse has moved and reinitialising.</p>
+	 * <p>If not repeating, a new valid side is selected as the current position if
+	 * possible, otherwise it does a Reset - allowing for AutoEnd and sounds.</p>
+	 * @param theWorld is the world the player is in
+	 * @param entityPlayer is the player placing
+	 * @param effectiveSide is the effective side of a replaceable block placement (for autoRpt)
+	 */
+	public void placeComplete (World theWorld, EntityPlayer entityPlayer, int effectiveSide) {
+		Config config = Config.getInstance();
+		
+		// AutoOff if required & not repeating
+		if (config.placeAutoOff && !config.placeAutoRpt) {
+			changePlaceEnabled(false);
+			placeReinit = true;
+			Log.info("place mode auto-disabled");
+			
+		// Replaceable blocks when not repeating
+		} else if (placeReplaceable && !config.placeAutoRpt) {
+			placeReinit = true;
+			placeReplaceable = false;
+			Log.fine("Replaced block but no autoRpt so re-initialise");
+
+		// Reset ray trace and reinitialise if nothing in reach now
+		} else if (!refocus(theWorld, entityPlayer, placeReplaceable ? placePosition : Coordinate.adjacent(placePosition, placeSide))) {
+			Log.fine("Nothing in reach now - was it a door??");
+			placeReinit = true;
+		
+		// Handle auto-repeat after a replaceable block
+		} else if (placeReplaceable && config.placeAutoRpt && effectiveSide > -1) { 
+			placeReplaceable = checkIfPositionIsReplaceable(getNeighbourhood(theWorld));
+			placeSide = effectiveSide;
+			Log.fine("Replaced block, so auto-repeat at same block on side "+Facing.facings[placeSide]+" ("+placeSide+")");
+			if (!SideSolver.isValid(getSideMask(theWorld, entityPlayer, placePosition), placeSide)) {
+				Log.fine("Place mode auto-repeat terminated due to obstruction");
+				placeReset(theWorld);
+			}
+			
+		// Handle normal auto-repeat
+		} else if (config.placeAutoRpt) {
+			long newC = Coordinate.adjacent(placePosition, placeSide);
+			Log.fine("Place mode auto-repeat from " + Coordinate.format(placePosition) + " to " + Coordinate.format(newC)
+					+ " side " + placeSide);
+			if (SideSolver.isValid(getSideMask(theWorld, entityPlayer, newC), placeSide)) {
+				placePosition = newC;
+				placeReplaceable = checkIfPositionIsReplaceable(getNeighbourhood(theWorld));
+			} else {
+				Log.fine("Place mode auto-repeat terminated due to obstruction");
+				placeReset(theWorld);
+			}
+			
+		// Find next place position around the same block if not repeating	
+		} else if (setDefaultPlace (theWorld, entityPlayer, placeSide) < 0) {
+			// this happens with no auto repeat if place on all sides of a block!!
+			Log.fine("Place mode force-reset - no valid place sides");
+			placeReset(theWorld);
+		}
+	}
+
+	/**
+	 * Return to an earlier place position and side after a placement did not happen.
+	 * @param theWorld is the world the player is in
+	 * @param position is the packed place position the failed placement was placed against
+	 * @param side is the side the failed placement was placed on
+	 */
+	public void rollBackPlacement(World theWorld, long position, int side) {
+		if (placeEnabled && !placeReinit) {
+			placePosition = position;
+			placeSide = side;
+			placeReplaceable = checkIfPositionIsReplaceable(getNeighbourhood(theWorld));
+			Log.fine("Placement rolled back to " + Coordinate.format(placePosition) + " side " + placeSide);
+		}
+	}
+
+	/**
+	 * Rotate the position that block placer will place in around the sides.
+	 * <p>The rotate direction corresponds to the 4 rotation keys - DONT CHANGE.
+	 * Uses the main lookup tables based on relative facing to make the rotation
+	 * seem natural to the player regardless of the compass points involved.
+	 * Keeps rotating until a valid empty position is found, or Resets if none
+	 * are possible.</p>
+	 * <p>Supports collapsing replaceable positions.</p>
+	 *
+	 * @param theWorld is the world the player is in
+	 * @param entityPlayer is the player placing
+	 * @param rotateDirection is the rotation direction
+	 * 		  0 = Rotate Vertical Clockwise
+	 * 		  1 = Rotate Vertical AntiClockwise
+	 * 		  2 = Rotate Horizontal Clockwise
+	 * 		  3 = Rotate Horizontal AntiClockwise
+	 */
+	public void rotatePlace(World theWorld, EntityPlayer entityPlayer, int rotateDirection) {
+		if (placeEnabled) {
+			int newSide;
+
+			// For replaceable positions, try collapsing first to see if that works
+			if (placeReplaceable) {
+				int collapsedSide = collapseReplaceablePosition (getNeighbourhood(theWorld));
+				if (collapsedSide != -1) {
+					long collapsedPos = Coordinate.adjacent(placePosition, Facing.oppositeSide[collapsedSide]);
+					if ((newSide = doRotatePosition(theWorld, entityPlayer, collapsedPos, collapsedSide, rotateDirection)) != -1) {
+						placePosition = collapsedPos;
+						placeSide = newSide;
+						placeReplaceable = checkIfPositionIsReplaceable(getNeighbourhood(theWorld));
+						Log.fine("RotatePlace confirmed collapse to "+Coordinate.format(placePosition));
+					}
+				}
+
+			// Otherwise we rotate around the place position
+			} else if ((newSide = doRotatePosition(theWorld, entityPlayer, placePosition, placeSide, rotateDirection)) != -1) {
+				placeSide = newSide;
+			}
+		}
+	}
+
+	/**
+	 * Adjust placement side based on the forward / backward keys.
+	 * <p>Uses the relative direction of the player to rotate through a standard
+	 * list of relative sides so it makes sense to the player no matter what
+	 * compass points are involved.</p>
+	 * <p>Supports collapsing replaceable positions.</p>
+	 *
+	 * @param theWorld is the world the player is in
+	 * @param entityPlayer is the player placing
+	 * @param autoOn indicates if block placer should auto turn on if currently off
+	 * @param forward is set true for forward or false for backward
+	 * @return true if a valid place is found otherwise false
+	 */
+	public boolean adjustPlace(World theWorld, EntityPlayer entityPlayer, boolean autoOn, boolean forward) {
+		if (!placeEnabled) {
+			if (autoOn) setPlaceEnabled(true);
+			return true;
+		}
+
+		int newSide;
+
+		// For replaceable positions, try collapsing first to see if that works
+		if (placeReplaceable) {
+			int collapsedSide = collapseReplaceablePosition (getNeighbourhood(theWorld));
+			if (collapsedSide != -1) {
+				long collapsedPos = Coordinate.adjacent(placePosition, Facing.oppositeSide[collapsedSide]);
+				if ((newSide = doAdjustPosition(theWorld, entityPlayer, collapsedPos, collapsedSide, forward)) != -1) {
+					placePosition = collapsedPos;
+					placeSide = newSide;
+					placeReplaceable = checkIfPositionIsReplaceable(getNeighbourhood(theWorld));
+					Log.fine("AdjustPlace confirmed collapse to "+Coordinate.format(placePosition));
+					return true;
+				}
+			}
+
+		// Otherwise we adjust from the current place position & side
+		} else if ((newSide = doAdjustPosition(theWorld, entityPlayer, placePosition, placeSide, forward)) != -1) {
+			placeSide = newSide;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Set place side based on mouse movements.
+	 * <p>Check for a mouse movement bigger than the configured threshold, and then
+	 * analyse it for the direction of movement. The 'wobble' configuration is used
+	 * to assist in pure vertical or horizontal movement.</p>
+	 *
+	 * <p>A translation matrix is used with relative directions to set the place side
+	 * in the direction of mouse movement relative to the player. Note that diagonal
+	 * LEFT is BACK, and diagonal RIGHT is FRONT.</p>
+	 *
+	 * @param theWorld is the world the player is in
+	 * @param entityPlayer is the player placing
+	 * @param dx is the horizontal mouse movement
+	 * @param dy is the vertical mouse movement
+	 * @return true if the movement was big enough to be considered
+	 */
+	public boolean mouseShiftPlace(World theWorld, EntityPlayer entityPlayer, int dx, int dy) {
+		Config config = Config.getInstance();
+		int relDir;
+		int newSide;
+
+		// Check if mouse event is enough to change sides
+		// note: 0,0 is bottom left corner of screen with X horizontal and Y vertical.
+		if (Math.abs(dx) + Math.abs(dy) >= config.mouseThreshold) {
+			int fx = (dx < - config.mouseWobble) ? 0 : (dx > config.mouseWobble) ? 2 : 1;
+			int fy = (dy < - config.mouseWobble) ? 0 : (dy > config.mouseWobble) ? 2 : 1;
+			if ((relDir = Const.MOUSE_TO_DIR [fx][fy]) >= 0) {
+
+				Log.fine("MouseShiftPlace dxy("+dx+","+dy+") fxy("+fx+","+fy+") relDir "+
+						Const.DIRECTION_NAME[relDir]+" ("+relDir+")");
+
+				// For replaceable positions, try collapsing first to see if that works
+				if (placeReplaceable) {
+					int collapsedSide = collapseReplaceablePosition (getNeighbourhood(theWorld));
+					if (collapsedSide != -1) {
+						long collapsedPos = Coordinate.adjacent(placePosition, Facing.oppositeSide[collapsedSide]);
+						if ((newSide = doMouseShiftPosition(theWorld, entityPlayer, collapsedPos, collapsedSide, relDir)) != -1) {
+							placePosition = collapsedPos;
+							placeSide = newSide;
+							placeReplaceable = checkIfPositionIsReplaceable(getNeighbourhood(theWorld));
+							Log.fine("MouseShiftPlace confirmed collapse to "+Coordinate.format(placePosition));
+						}
+					}
+
+				// Otherwise we adjust from the current place position & side
+				} else if ((newSide = doMouseShiftPosition(theWorld, entityPlayer, placePosition, placeSide, relDir)) != -1) {
+					placeSide = newSide;
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// **************************************
+	// Solver Utility methods
+	// **************************************
+
+	/**
+	 * Return the 2D direction (NSEW) that the player is facing
+	 * @param entityPlayer is the player in question
+	 * @return the nearest direction / side facing of the player
+	 */
+	public static int getPlayerDirection(EntityPlayer entityPlayer) {
+		return getYawDirection(entityPlayer.rotationYaw);
+	}
+
+	/**
+	 * Return the 2D direction (NSEW) of a yaw angle
+	 * @param yaw is the rotation yaw in degrees
+	 * @return the nearest direction / side facing
+	 */
+	public static int getYawDirection(float yaw) {
+		return Direction.directionToFacing[MathHelper.floor_float((yaw / 90F) + 0.5F) & 3];
+	}
+
+	/**
+	 * Return the player pitch (up / level / down)
+	 * @param entityPlayer is the player in question
+	 * @return the pitch zone that the player is looking in
+	 */
+	public static int playerPitch(EntityPlayer entityPlayer) {
+		return getPitchZone(entityPlayer.rotationPitch);
+	}
+
+	/**
+	 * Return the pitch zone (up / level / down) of a pitch angle
+	 * @param rotationPitch is the rotation pitch in degrees
+	 * @return the pitch zone
+	 */
+	public static int getPitchZone(float rotationPitch) {
+		int pitch;
+		if (rotationPitch > Const.PITCH_ANGLE) { // Looking down
+			pitch = Const.PITCH_DOWN;
+		} else if (rotationPitch < - Const.PITCH_ANGLE) { // Looking up
+			pitch = Const.PITCH_UP;
+		} else {
+			pitch = Const.PITCH_LEVEL;
+		}
+		//Log.finer("Pitch zone " + Const.PITCH_NAME[pitch] + "(" + pitch + "), angle=" + rotationPitch);
+		return pitch;
+	}
+
+	/**
+	 * Worker to check if it is legal to place a block on the given side of the given position
+	 * location. Used for testing alternate placement sides to see if they are valid.
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the entity player that would do the placement
+	 * @param pos is the packed block coordinate to place against
+	 * @param side is the block side we want to place on.
+	 * @return true if the current player item could be placed here else false
+	 */
+	public static boolean canPlaceOnThisSide(World theWorld, EntityPlayer entityPlayer, long pos, int side) {
+		ItemStack itemStack = entityPlayer.getHeldItem();
+		ItemBlock itemBlock = ((itemStack != null && itemStack.getItem() instanceof ItemBlock)
+				? (ItemBlock) itemStack.getItem() : DIRT);
+		boolean valid = itemBlock.canPlaceItemBlockOnSide(theWorld, Coordinate.unpackX(pos),
+				Coordinate.unpackY(pos), Coordinate.unpackZ(pos), side, entityPlayer, itemStack);
+		//Log.finer("canPlaceOnThisSide " + Coordinate.format(pos) + " @ side " + side + " --> " + valid);
+		return valid;
+	}
+
+	/**
+	 * Check if mouse has shifted since the previous ray trace?
+	 * @param mop is the moving object position from the ray trace
+	 * @return true if mouse ray trace XYZ or side has changed.
+	 */
+	boolean mouseShifted(MovingObjectPosition mop) {
+		return (Coordinate.pack(mop) != placeMopPosition || mop.sideHit != placeMopSide);
+	}
+
+	/**
+	 * Record the player view that the placeMop ray trace is valid for.
+	 * @param entityPlayer is the player
+	 */
+	void recordView(EntityPlayer entityPlayer) {
+		viewX = entityPlayer.posX;
+		viewY = entityPlayer.posY;
+		viewZ = entityPlayer.posZ;
+		viewYaw = entityPlayer.rotationYaw;
+		viewPitch = entityPlayer.rotationPitch;
+	}
+
+	/**
+	 * @param entityPlayer is the player
+	 * @return true if the player view is exactly as recorded by {@link recordView}
+	 */
+	boolean isViewUnchanged(EntityPlayer entityPlayer) {
+		return (entityPlayer.posX == viewX && entityPlayer.posY == viewY && entityPlayer.posZ == viewZ
+				&& entityPlayer.rotationYaw == viewYaw && entityPlayer.rotationPitch == viewPitch);
+	}
+
+	/**
+	 * Return the side validity mask for a position, evaluating all six sides with
+	 * {@link canPlaceOnSide} only if the position or held item has changed, or the
+	 * change stamp has moved on, since the last evaluation.
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the entity player that would do the placement
+	 * @param pos is the packed block coordinate to place against
+	 * @return the 6-bit side validity mask - see {@link SideSolver}
+	 */
+	int getSideMask(World theWorld, EntityPlayer entityPlayer, long pos) {
+		ItemStack itemStack = getHeldItem(entityPlayer);
+		int itemId = (itemStack == null) ? 0 : itemStack.itemID;
+		int itemDamage = (itemStack == null) ? 0 : itemStack.getItemDamage();
+		long changeStamp = getChangeStamp(theWorld);
+
+		if (changeStamp != maskChangeStamp || maskPosition != pos || itemStack != maskItemStack
+				|| itemId != maskItemId || itemDamage != maskItemDamage) {
+			int mask = SideSolver.NO_SIDES;
+			for (int side = 0; side < 6; side++) {
+				if (canPlaceOnSide(theWorld, entityPlayer, pos, side))
+					mask |= 1 << side;
+			}
+			sideMask = mask;
+			maskPosition = pos;
+			maskItemStack = itemStack;
+			maskItemId = itemId;
+			maskItemDamage = itemDamage;
+			maskChangeStamp = changeStamp;
+			Log.finer("SideMask " + Coordinate.format(pos) + " --> " + Integer.toBinaryString(mask));
+		}
+		return sideMask;
+	}
+
+	/**
+	 * Return the block snapshot around the place position, refilling it only if the
+	 * place position has moved or the change stamp has moved on since the last fill.
+	 * The watched neighbourhood is kept centred on the snapshot so that every change
+	 * to the snapshot blocks is seen.
+	 * @param theWorld is the current world
+	 * @return the block source to use for placement checks
+	 */
+	BlockSource getNeighbourhood (World theWorld) {
+		watchCentre(placePosition);
+		BlockSource blocks = getBlockSource(theWorld);
+		int x = Coordinate.unpackX(placePosition), y = Coordinate.unpackY(placePosition), z = Coordinate.unpackZ(placePosition);
+		return (blocks == null) ? neighbourhood.refresh(theWorld, x, y, z, getChangeStamp(theWorld))
+				: neighbourhood.refresh(blocks, x, y, z, getChangeStamp(theWorld));
+	}
+
+	/**
+	 * Check that the current place position itself is a valid block, or a block that has been
+	 * placed and is awaiting confirmation.
+	 * @param blocks is the block source around the place position
+	 * @return true if the place position contains a block to place against
+	 */
+	boolean isCurrentPlaceValid (BlockSource blocks) {
+		return (blocks.getBlockId (Coordinate.unpackX(placePosition), Coordinate.unpackY(placePosition),
+				Coordinate.unpackZ(placePosition)) != 0 || isPending(placePosition));
+	}
+
+	/**
+	 * Check if a block actually placed when the player right clicked or did the block just activate?
+	 * Make sure the block found is not liquid as this indicates it didn't place properly.
+	 * @param blocks is the block source around the place position
+	 * @return true if a replaceable block was replaced or there is a block on the place side of the place position
+	 */
+	boolean didItPlaceABlock (BlockSource blocks) {
+		if (placeReplaceable) {
+			return (!checkIfPositionIsReplaceable(blocks));
+		} else {
+			long newC = Coordinate.adjacent(placePosition, placeSide);
+	        int blockId = blocks.getBlockId (Coordinate.unpackX(newC), Coordinate.unpackY(newC), Coordinate.unpackZ(newC));
+	        return (blockId != 0 && Block.blocksList[blockId] != null && !CapabilityIndex.isLiquid(blockId));
+		}
+	}
+
+	/**
+	 * 'Intelligently' chose a default place to start the placement cycle from.
+	 * <p>Uses the {@link SideSolver} 'default place' table which tries the top 3 options
+	 * to see if they are valid place locations. If none are, it falls back to a forward
+	 * adjust from the side hit to find any valid side, if one exists.
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the player placing
+	 * @param sideHit is the compass block side hit by the player.
+	 * @return the compass block side for initial placement OR -1 if impossible.
+	 */
+	int setDefaultPlace (World theWorld, EntityPlayer entityPlayer, int sideHit) {
+		int facing = getFacing(entityPlayer);
+		int pitch = getPitch(entityPlayer);
+		int mask = getSideMask(theWorld, entityPlayer, placePosition);
+		int newSide = SideSolver.defaultPlace(pitch, facing, sideHit, mask);
+		traceDecision(PlaceTrace.DECIDE_DEFAULT, placePosition, pitch, facing, sideHit, 0, mask, newSide);
+		Log.finer("DefaultPlace "+Coordinate.format(placePosition)+" Side("+sideHit+") Facing("+facing+") Pitch("
+				+pitch+") Mask("+Integer.toBinaryString(mask)+") NewSide("+newSide+")");
+
+		placeSide = (newSide < 0) ? sideHit : newSide;
+		return newSide;
+	}
+
+	/**
+	 * Reset the block placer state once we reach a position where there is no
+	 * valid options for the current place location.
+	 * @param theWorld is the current world
+	 */
+	void placeReset (World theWorld) {
+		// Turn off block placer instead of Resetting if autoEnd is on.
+		if (Config.getInstance().placeAutoEnd) {
+			changePlaceEnabled(false);
+		}
+		onReset(theWorld);
+
+		// Mark place position to be re-initialised.
+		placeReinit = true;
+	}
+
+	/**
+	 * Check if the place position is a (non-liquid) replaceable block
+	 * @param blocks is the block source around the place position
+	 * @return true if the place position is a replaceable block
+	 */
+	boolean checkIfPositionIsReplaceable (BlockSource blocks) {
+		int x = Coordinate.unpackX(placePosition), y = Coordinate.unpackY(placePosition), z = Coordinate.unpackZ(placePosition);
+		if (blocks.isReplaceable(x, y, z)) {
+        	Log.fine("Block is replaceable at "+Coordinate.format(placePosition)+", id("+blocks.getBlockId(x, y, z)+")");
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Find the effective side that we are placing on if we ignored the replaceable block
+	 * Result also implies the opposite direction to find the expected adjacent block location
+	 * @param blocks is the block source around the place position
+	 * @return the effective side of the underlying block or -1 if not replaceable
+	 */
+	int findEffectiveReplaceableSide (BlockSource blocks) {
+		int x = Coordinate.unpackX(placePosition), y = Coordinate.unpackY(placePosition), z = Coordinate.unpackZ(placePosition);
+        int blockId = blocks.getBlockId(x, y, z);
+		int blockMeta = blocks.getBlockMetadata(x, y, z);
+		Block block = Block.blocksList[blockId];
+
+		if (blocks.isReplaceable(x, y, z)) {
+    		int side;
+        	if (!(block instanceof BlockVine)) side = Const.SIDE_TOP;
+    		//see BlockVine.java canVineStay() and setBlockBoundsBasedOnState() for why this order
+        	else if ((blockMeta & 2) != 0) 	side = Const.SIDE_EAST;
+            else if ((blockMeta & 8) != 0) 	side = Const.SIDE_WEST;
+            else if ((blockMeta & 4) != 0) 	side = Const.SIDE_SOUTH;
+            else if ((blockMeta & 1) != 0) 	side = Const.SIDE_NORTH;
+            else 							side = Const.SIDE_BOTTOM;
+        	Log.fine("Replaceable block at "+Coordinate.format(placePosition)+", id("+blockId+") Meta("+blockMeta+") eff-Side "+Facing.facings[side]+"("+side+")");
+        	return side;
+        } else {
+    		return -1;
+        }
+	}
+
+	/**
+	 * Attempts to collapse a currently replaceable position to the underlying block
+	 * that the replaceable block is against. If possible, returns the effective placement
+	 * side. The collapsed position is the place position adjacent on the opposite side.
+	 * @param blocks is the block source around the place position
+	 * @returns collapsed place side if can collapse else -1
+	 */
+	int collapseReplaceablePosition (BlockSource blocks) {
+		int side = findEffectiveReplaceableSide(blocks);
+		if (placeReplaceable && side != -1) {
+			long collapsedPos = Coordinate.adjacent(placePosition, Facing.oppositeSide[side]);
+	        if (blocks.getBlockId(Coordinate.unpackX(collapsedPos), Coordinate.unpackY(collapsedPos), Coordinate.unpackZ(collapsedPos)) != 0) {
+	        	Log.fine("Collapse replaceable at "+Coordinate.format(placePosition)+" eff-Side "+Facing.facings[side]+"("+side+") to "+Coordinate.format(collapsedPos));
+	        	return side;
+	        }
+	    	Log.fine("Unable to collapse replaceable at "+Coordinate.format(placePosition));
+		}
+		return -1;
+	}
+
+	/**
+	 * Attempts to detect if a world block can activate or not.
+	 * <p>Looks the block up in the {@link CapabilityIndex} which records whether the block overrides
+	 * the base {@link Block} class method for onBlockActivated. If it doesn't the block cannot activate.</p>
+	 * @param blocks is the block source around the position
+	 * @param position is the packed world position coordinate
+	 * @return true if the block could activate, or false if it definitely can't
+	 */
+	boolean canBlockActivate (BlockSource blocks, long position) {
+		return CapabilityIndex.canActivate(blocks.getBlockId(Coordinate.unpackX(position), Coordinate.unpackY(position),
+				Coordinate.unpackZ(position)));
+	}
+
+	// **************************************
+	// Side specific hooks
+	// **************************************
+
+	/**
+	 * Return a stamp that changes whenever the blocks around the place position may have changed.
+	 * The base session assumes they may change every tick.
+	 * @param theWorld is the current world
+	 * @return the change stamp
+	 */
+	protected long getChangeStamp(World theWorld) {
+		return theWorld.getTotalWorldTime();
+	}
+
+	/**
+	 * Return the block source the neighbourhood around the place position is read from.
+	 * @param theWorld is the current world
+	 * @return the block source, or null to read the world itself
+	 */
+	protected BlockSource getBlockSource(World theWorld) {
+		return null;
+	}
+
+	/**
+	 * Check if the held item can be placed on a side of a position - see {@link canPlaceOnThisSide}.
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the entity player that would do the placement
+	 * @param pos is the packed block coordinate to place against
+	 * @param side is the block side we want to place on.
+	 * @return true if the current player item could be placed here else false
+	 */
+	protected boolean canPlaceOnSide(World theWorld, EntityPlayer entityPlayer, long pos, int side) {
+		return canPlaceOnThisSide(theWorld, entityPlayer, pos, side);
+	}
+
+	/**
+	 * @param entityPlayer is the player placing
+	 * @return the nearest direction / side facing of the player - see {@link getPlayerDirection}
+	 */
+	protected int getFacing(EntityPlayer entityPlayer) {
+		return getPlayerDirection(entityPlayer);
+	}
+
+	/**
+	 * @param entityPlayer is the player placing
+	 * @return the pitch zone that the player is looking in - see {@link playerPitch}
+	 */
+	protected int getPitch(EntityPlayer entityPlayer) {
+		return playerPitch(entityPlayer);
+	}
+
+	/**
+	 * @param entityPlayer is the player placing
+	 * @return the item the player is holding or null
+	 */
+	protected ItemStack getHeldItem(EntityPlayer entityPlayer) {
+		return entityPlayer.getHeldItem();
+	}
+
+	/**
+	 * @param entityPlayer is the player placing
+	 * @return true if the player is sneaking
+	 */
+	protected boolean isSneaking(EntityPlayer entityPlayer) {
+		return entityPlayer.isSneaking();
+	}
+
+	/**
+	 * Called before the neighbourhood of a place position is read so that changes around it can be watched.
+	 * @param position is the packed place position
+	 */
+	protected void watchCentre(long position) {}
+
+	/**
+	 * @param position is a packed world position
+	 * @return true if a block has been placed at the position and is awaiting confirmation
+	 */
+	protected boolean isPending(long position) {
+		return false;
+	}
+
+	/**
+	 * Called after a block is placed to move the ray trace target on to the placed block if it now
+	 * obscures the old one. The base session has no ray trace to update.
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the player placing
+	 * @param placed is the packed position of the block just placed
+	 * @return true if a valid ray trace target exists or false if nothing is within reach anymore
+	 */
+	protected boolean refocus(World theWorld, EntityPlayer entityPlayer, long placed) {
+		return true;
+	}
+
+	/** @return true if the smart start search may be used when the placement is reinitialised */
+	protected boolean allowSmartStart() {
+		return true;
+	}
+
+	/**
+	 * Called whenever place mode is turned on or off, whether by the player or automatically.
+	 * @param enabled is the new enable status
+	 */
+	protected void onPlaceEnabled(boolean enabled) {}
+
+	/**
+	 * Called when the placement is reset because there is no valid place location.
+	 * @param theWorld is the current world
+	 */
+	protected void onReset(World theWorld) {}
+
+	/**
+	 * Called with the inputs and result of every {@link SideSolver} lookup so they can be traced.
+	 * @param kind is the {@link PlaceTrace} DECIDE_xx kind of lookup
+	 * @param position is the packed position the side mask is for
+	 * @param pitch is the player pitch zone, or 0 if not used by the lookup
+	 * @param facing is the player facing
+	 * @param side is the side hit or current side
+	 * @param param is the rotate direction, 0 for forward or 1 for backward adjust, or the relative direction
+	 * @param mask is the side validity mask
+	 * @param result is the new side or -1
+	 */
+	protected void traceDecision(int kind, long position, int pitch, int facing, int side, int param, int mask, int result) {}
+
+	// **************************************
+	// Solver workers
+	// **************************************
+
+	/**
+	 * 3D rotation worker that attempts to rotate from the given position and side
+	 * in the given rotation direction looking for a valid position to place.
+	 * <p>The rotate direction corresponds to the 4 rotation keys - DONT CHANGE.
+	 * Uses the main lookup tables based on relative facing to make the rotation
+	 * seem natural to the player regardless of the compass points involved.
+	 * Keeps rotating until a valid empty position is found, or fails.</p>
+	 *
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the player placing
+	 * @param position is the packed position to rotate around
+	 * @param side is the current side to rotate from
+	 * @param rotateDirection is the rotation direction
+	 * 		  0 = Rotate Vertical Clockwise
+	 * 		  1 = Rotate Vertical AntiClockwise
+	 * 		  2 = Rotate Horizontal Clockwise
+	 * 		  3 = Rotate Horizontal AntiClockwise
+	 * @returns the new side if rotation succeeded else -1
+	 */
+	private int doRotatePosition(World theWorld, EntityPlayer entityPlayer, long position, int side, int rotateDirection) {
+		// Acquire facing, pitch and side validity then look up the rotation
+		int direction = getFacing(entityPlayer);
+		int pitch = getPitch(entityPlayer);
+		int mask = getSideMask(theWorld, entityPlayer, position);
+		int newSide = SideSolver.rotate(pitch, direction, side, rotateDirection, mask);
+		traceDecision(PlaceTrace.DECIDE_ROTATE, position, pitch, direction, side, rotateDirection, mask, newSide);
+
+		// Log results and return chosen side or failure.
+		if (newSide != -1) {
+			Log.fine("RotatePosition " + Coordinate.format(position) + " chosen side is " + newSide);
+		} else {
+			Log.fine("RotatePosition " + Coordinate.format(position) + " failed to rotate dir= " + rotateDirection
+					+ ", from=" + side + ", mask=" + Integer.toBinaryString(mask));
+		}
+		return newSide;
+	}
+
+	/**
+	 * Forward/backward adjust worker that attempts to adjust from the given position and side
+	 * in the given direction looking for a valid side to place on.
+	 * <p>Uses the relative direction of the player to rotate through a standard
+	 * list of relative sides so it makes sense to the player no matter what
+	 * compass points are involved.</p>
+	 *
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the player placing
+	 * @param position is the packed position to rotate around
+	 * @param side is the current side to rotate from
+	 * @param forward is set true for forward or false for backward
+	 * @returns the new side if adjust side succeeded else -1
+	 */
+	private int doAdjustPosition (World theWorld, EntityPlayer entityPlayer, long position, int side, boolean forward) {
+		// Acquire facing and side validity then look up the adjustment
+		int facing = getFacing(entityPlayer);
+		int mask = getSideMask(theWorld, entityPlayer, position);
+		int newSide = SideSolver.adjust(facing, side, forward, mask);
+		traceDecision(PlaceTrace.DECIDE_ADJUST, position, 0, facing, side, forward ? 0 : 1, mask, newSide);
+
+		// Log results and return chosen side or failure.
+		if (newSide != -1) {
+			Log.fine("AdjustPosition " + Coordinate.format(position) + " chosen side is " + newSide);
+		} else {
+			// Happens if only one side is free, or when block can only be placed on top (like snow or grass)
+			Log.fine("AdjustPosition " + Coordinate.format(position) + " unable to adjust key= " + (forward ? 0 : 1)
+					+ ", from=" + side + ", mask=" + Integer.toBinaryString(mask));
+		}
+		return newSide;
+	}
+
+	/**
+	 * Mouse shift worker that attempts to change side based on mouse movements.
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the player placing
+	 * @param position is the packed position to rotate around
+	 * @param side is the current side to rotate from
+	 * @param relDir is the relative direction corresponding to the mouse movement
+	 * @returns the new side if side shift succeeded else -1
+	 */
+	private int doMouseShiftPosition(World theWorld, EntityPlayer entityPlayer, long position, int side, int relDir) {
+		int facing = getFacing(entityPlayer);
+		int mask = getSideMask(theWorld, entityPlayer, position);
+		int newSide = SideSolver.mouseShift(facing, side, relDir, mask);
+		traceDecision(PlaceTrace.DECIDE_MOUSE, position, 0, facing, side, relDir, mask, newSide);
+		Log.finer("MouseShiftPosition facing("+facing+") relDir "+Const.DIRECTION_NAME[relDir]+" ("+relDir+
+				") from side ("+side+") newSide ("+newSide+")");
+		return newSide;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * BlockPlacer placement trace format.
+ * <p>A trace is a header - magic, version and the mouse threshold and wobble configured when it
+ * was captured - followed by a stream of records, each a type byte and its fields:</p>
+ * <p>TICK - tick, yaw, pitch, held item ID and damage, ray trace position and side, place
+ * position and side, flags, then the block ID, metadata and replaceable flag of the 3x3x3 cube
+ * around the place position if place mode is on.<br>
+ * KEY - the key control action ({@link KeyBind} KEY_xx).<br>
+ * MOUSE - a mouse gesture passed to the side change.<br>
+ * DECISION - the kind, position, inputs and result of a {@link SideSolver} lookup.</p>
+ * <p>Written by the {@link TraceRecorder} and read back by {@link TraceReplay}. Only uses plain
+ * Java so a trace can be read without Minecraft.</p>
+ *
+ * <p>Pattern: Enforced Static Immutable</p>
+ *
+ * @author MudRaker
+ */
+public class PlaceTrace {
+	private PlaceTrace() {} // Static: Prevent instantiation
+
+	/** File header magic 'MRBT' */
+	public static final int MAGIC = 0x4D524254;
+
+	/** Format version */
+	public static final int VERSION = 2;
+
+	// Record types
+	public static final int TICK = 0;
+	public static final int KEY = 1;
+	public static final int MOUSE = 2;
+	public static final int DECISION = 3;
+
+	// Decision kinds
+	public static final int DECIDE_DEFAULT = 0;
+	public static final int DECIDE_ROTATE = 1;
+	public static final int DECIDE_ADJUST = 2;
+	public static final int DECIDE_MOUSE = 3;
+
+	// Tick flags
+	public static final int FLAG_ENABLED = 1;
+	public static final int FLAG_REPLACEABLE = 2;
+	public static final int FLAG_DRAWN = 4;
+
+	/** Set in the cell metadata byte if the cell is replaceable - metadata is only 4 bits */
+	public static final int CELL_REPLACEABLE = 0x10;
+
+	/** Number of neighbourhood cells recorded with each tick */
+	public static final int CELLS = BlockSnapshot.SIZE * BlockSnapshot.SIZE * BlockSnapshot.SIZE;
+
+	/**
+	 * Sequential trace reader. Each call to {@link #next} reads one record into the public
+	 * fields for its type - the fields of other types keep their last values.
+	 */
+	public static class Reader {
+		private final DataInputStream in;
+
+		// Header
+		public final int mouseThreshold, mouseWobble;
+
+		// TICK
+		public long tick;
+		public float yaw, pitch;
+		public int itemId, itemDamage;
+		public long mopPosition, placePosition;
+		public int mopSide, placeSide, flags;
+		public final int[] ids = new int[CELLS];
+		public final int[] meta = new int[CELLS];
+		public final boolean[] replaceable = new boolean[CELLS];
+
+		// KEY
+		public int action;
+
+		// MOUSE
+		public int dx, dy;
+
+		// DECISION
+		public int kind, pitchZone, facing, side, param, mask, result;
+		public long position;
+
+		/**
+		 * @param in is the stream positioned at the start of the trace
+		 * @throws IOException if the stream is not a trace of a known version
+		 */
+		public Reader(DataInputStream in) throws IOException {
+			this.in = in;
+			if (in.readInt() != MAGIC) throw new IOException("Not a BlockPlacer trace");
+			int version = in.readUnsignedByte();
+			if (version != VERSION) throw new IOException("Unsupported trace version " + version);
+			mouseThreshold = in.readUnsignedByte();
+			mouseWobble = in.readUnsignedByte();
+		}
+
+		/**
+		 * Read the next record.
+		 * @return the record type or -1 at the end of the trace
+		 * @throws IOException if the trace is corrupt
+		 */
+		public int next() throws IOException {
+			int type;
+			try {
+				type = in.readUnsignedByte();
+			} catch (EOFException e) {
+				return -1;
+			}
+			switch (type) {
+			case TICK:
+				tick = in.readLong();
+				yaw = in.readFloat();
+				pitch = in.readFloat();
+				itemId = in.readInt();
+				itemDamage = in.readShort();
+				mopPosition = in.readLong();
+				mopSide = in.readByte();
+				placePosition = in.readLong();
+				placeSide = in.readByte();
+				flags = in.readUnsignedByte();
+				if ((flags & FLAG_ENABLED) != 0) {
+					for (int cell = 0; cell < CELLS; cell++) {
+						ids[cell] = in.readUnsignedShort();
+						int data = in.readUnsignedByte();
+						meta[cell] = data & 0x0F;
+						replaceable[cell] = (data & CELL_REPLACEABLE) != 0;
+					}
+				}
+				break;
+			case KEY:
+				action = in.readByte();
+				break;
+			case MOUSE:
+				dx = in.readShort();
+				dy = in.readShort();
+				break;
+			case DECISION:
+				kind = in.readByte();
+				position = in.readLong();
+				pitchZone = in.readByte();
+				facing = in.readByte();
+				side = in.readByte();
+				param = in.readByte();
+				mask = in.readByte();
+				result = in.readByte();
+				break;
+			default:
+				throw new IOException("Unknown trace record type " + type);
+			}
+			return type;
+		}
+	}
+}
\ No newline at end of file
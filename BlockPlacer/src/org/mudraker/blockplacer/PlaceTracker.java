@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.MovingObjectPosition;
+import net.minecraft.world.IWorldAccess;
+import net.minecraft.world.World;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer placement change tracker.
+ * <p>Registers as a world access listener so that block updates near the current
+ * place position are noticed as they happen, and records the inputs that the last
+ * placement was established from (ray trace target, held item, player facing, pitch
+ * zone and sneaking). The placement only needs to be re-established when one of
+ * these has changed.</p>
+ * <p>Every world change near the place position bumps a change counter which is also
+ * used to key the cached side validity mask. Changes to the placement state itself
+ * (such as the chosen side) are counted separately so they do not discard the mask.</p>
+ *
+ * <p>Pattern: Singleton World Listener</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class PlaceTracker implements IWorldAccess {
+	// Singleton instance enforcement
+	private final static PlaceTracker instance = new PlaceTracker(); // Singleton instance
+	public static PlaceTracker getInstance() { return instance; } // Return singleton for access
+	private PlaceTracker() {} // Singleton: Prevent additional instantiation
+
+	/**
+	 * Block distance around the centre that is watched for updates.
+	 * Covers the 3x3x3 neighbourhood of the place position plus the neighbourhood of the
+	 * adjacent positions that collapse and auto-repeat may move to.
+	 */
+	private static final int WATCH_RADIUS = 2;
+
+	/** The world currently being listened to */
+	private World theWorld;
+
+	/** Centre of the watched neighbourhood */
+	private int centreX, centreY, centreZ;
+
+	/** Incremented every time the world near the place position changes */
+	private long changeCount = 0;
+
+	/** Incremented every time the placement state is changed by BlockPlacer */
+	private long stateCount = 0;
+
+	// Inputs the last placement was established from
+	private long lastChangeCount = -1;
+	private long lastStateCount = -1;
+	private int lastX, lastY, lastZ, lastSideHit;
+	private ItemStack lastItemStack;
+	private int lastItemId, lastItemDamage;
+	private int lastFacing, lastPitch;
+	private boolean lastSneaking;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Listen to the given world, moving the listener over from any previous world.
+	 * @param world is the world to listen to
+	 */
+	public void watch(World world) {
+		if (world != theWorld) {
+			if (theWorld != null) theWorld.removeWorldAccess(this);
+			theWorld = world;
+			if (theWorld != null) theWorld.addWorldAccess(this);
+			changeCount++;
+		}
+	}
+
+	/**
+	 * Move the watched neighbourhood to be centred on a new place position.
+	 * @param position is the new centre as a packed coordinate
+	 */
+	public void setCentre(long position) {
+		int x = Coordinate.unpackX(position), y = Coordinate.unpackY(position), z = Coordinate.unpackZ(position);
+		if (x != centreX || y != centreY || z != centreZ) {
+			centreX = x;
+			centreY = y;
+			centreZ = z;
+			changeCount++; // updates outside the old neighbourhood were not seen
+		}
+	}
+
+	/** Forces the placement to be re-established next time. Used when the placement state itself changes. */
+	public void invalidate() {
+		stateCount++;
+	}
+
+	/** @return the current world change counter - any change in value means the watched blocks may have changed */
+	public long getChangeCount() {
+		return changeCount;
+	}
+
+	/**
+	 * Check if anything has changed since the last call to {@link #record}
+	 * @param mop is the ray trace target
+	 * @param entityPlayer is the player
+	 * @param facing is the player facing
+	 * @param pitch is the player pitch zone
+	 * @return true if the placement inputs and watched blocks are unchanged
+	 */
+	public boolean isUnchanged(MovingObjectPosition mop, EntityPlayer entityPlayer, int facing, int pitch) {
+		ItemStack itemStack = entityPlayer.getHeldItem();
+		return (changeCount == lastChangeCount && stateCount == lastStateCount
+				&& mop.blockX == lastX && mop.blockY == lastY && mop.blockZ == lastZ && mop.sideHit == lastSideHit
+				&& itemStack == lastItemStack
+				&& (itemStack == null || (itemStack.itemID == lastItemId && itemStack.getItemDamage() == lastItemDamage))
+				&& facing == lastFacing && pitch == lastPitch
+				&& entityPlayer.isSneaking() == lastSneaking);
+	}
+
+	/**
+	 * Record the inputs a placement has just been established from.
+	 * @param mop is the ray trace target
+	 * @param entityPlayer is the player
+	 * @param facing is the player facing
+	 * @param pitch is the player pitch zone
+	 */
+	public void record(MovingObjectPosition mop, EntityPlayer entityPlayer, int facing, int pitch) {
+		ItemStack itemStack = entityPlayer.getHeldItem();
+		lastChangeCount = changeCount;
+		lastStateCount = stateCount;
+		lastX = mop.blockX;
+		lastY = mop.blockY;
+		lastZ = mop.blockZ;
+		lastSideHit = mop.sideHit;
+		lastItemStack = itemStack;
+		lastItemId = (itemStack == null) ? 0 : itemStack.itemID;
+		lastItemDamage = (itemStack == null) ? 0 : itemStack.getItemDamage();
+		lastFacing = facing;
+		lastPitch = pitch;
+		lastSneaking = entityPlayer.isSneaking();
+	}
+
+	// **************************************
+	// IWorldAccess Implementation
+	// **************************************
+
+	/** Block ID or metadata changed - check pending placements and if it is in the watched neighbourhood */
+	@Override
+	public void markBlockForUpdate(int x, int y, int z) {
+		PlacementLedger.getInstance().onBlockChange(theWorld, x, y, z);
+		if (Math.abs(x - centreX) <= WATCH_RADIUS && Math.abs(y - centreY) <= WATCH_RADIUS
+				&& Math.abs(z - centreZ) <= WATCH_RADIUS) {
+			changeCount++;
+		}
+	}
+
+	/** Range of blocks changed (e.g. chunk reloaded) - check if it overlaps the watched neighbourhood */
+	@Override
+	public void markBlockRangeForRenderUpdate(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+		if (minX <= centreX + WATCH_RADIUS && maxX >= centreX - WATCH_RADIUS
+				&& minY <= centreY + WATCH_RADIUS && maxY >= centreY - WATCH_RADIUS
+				&& minZ <= centreZ + WATCH_RADIUS && maxZ >= centreZ - WATCH_RADIUS) {
+			changeCount++;
+		}
+	}
+
+	// Lighting and other notifications do not affect placement
+	@Override public void markBlockForRenderUpdate(int x, int y, int z) {}
+	@Override public void playSound(String s, double x, double y, double z, float volume, float pitch) {}
+	@Override public void playSoundToNearExcept(EntityPlayer p, String s, double x, double y, double z, float volume, float pitch) {}
+	@Override public void spawnParticle(String s, double x, double y, double z, double dx, double dy, double dz) {}
+	@Override public void onEntityCreate(Entity entity) {}
+	@Override public void onEntityDestroy(Entity entity) {}
+	@Override public void playRecord(String s, int x, int y, int z) {}
+	@Override public void broadcastSound(int type, int x, int y, int z, int data) {}
+	@Override public void playAuxSFX(EntityPlayer p, int type, int x, int y, int z, int data) {}
+	@Override public void destroyBlockPartially(int entityId, int x, int y, int z, int progress) {}
+}
\ No newline at end of file
@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.World;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer placement journal.
+ * <p>Remembers the last {@link #CAPACITY} placements BlockPlacer has made so they can be undone.
+ * Entries are held newest last in a ring of primitive arrays - recording is a handful of array
+ * stores and the oldest entry is simply overwritten once the ring is full.</p>
+ * <p>{@link #undo} breaks the most recent placements newest first, one block per client tick. A
+ * block is only broken if the journalled block (and its metadata, when known at placement) is
+ * still there, so blocks that were rolled back, mined or replaced since are skipped. In creative
+ * mode a block breaks with a single click, in survival it is dug over as many ticks as the held
+ * tool needs.</p>
+ *
+ * <p>Pattern: Singleton Ring Buffer</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class PlacementJournal {
+	// Singleton instance enforcement
+	private final static PlacementJournal instance = new PlacementJournal(); // Singleton instance
+	public static PlacementJournal getInstance() { return instance; } // Return singleton for access
+	private PlacementJournal() {} // Singleton: Prevent additional instantiation
+
+	/** Number of placements remembered (power of 2) */
+	public static final int CAPACITY = 4096;
+
+	private static final int INDEX_MASK = CAPACITY - 1;
+
+	// Ring buffer of journalled placements
+	private final long[] placed = new long[CAPACITY];	// packed position of the placed block
+	private final byte[] side = new byte[CAPACITY];		// side it was placed on
+	private final short[] blockId = new short[CAPACITY];	// block ID or PlacementLedger.ANY_BLOCK
+	private final byte[] meta = new byte[CAPACITY];		// block metadata or -1
+	private int next = 0;	// index the next entry is written to
+	private int count = 0;
+
+	/** Placements still to undo */
+	private int undoRemaining = 0;
+
+	/** Position being dug in survival, or NONE */
+	private static final long NONE = Long.MIN_VALUE;
+	private long digging = NONE;
+
+	// Statistics
+	private long undoneCount = 0;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Record a placement.
+	 * @param placedPosition is the packed position of the placed block
+	 * @param placeSide is the side it was placed on
+	 * @param placedId is the block ID placed or {@link PlacementLedger#ANY_BLOCK} if not known
+	 * @param placedMeta is the block metadata or -1 if not known
+	 */
+	public void record(long placedPosition, int placeSide, int placedId, int placedMeta) {
+		placed[next] = placedPosition;
+		side[next] = (byte) placeSide;
+		blockId[next] = (short) placedId;
+		meta[next] = (byte) placedMeta;
+		next = (next + 1) & INDEX_MASK;
+		if (count < CAPACITY) count++;
+	}
+
+	/**
+	 * Start undoing the most recent placements, adding to any undo in progress.
+	 * @param placements is the number of placements to undo
+	 * @return the number of placements queued to undo
+	 */
+	public int undo(int placements) {
+		undoRemaining = Math.min(count, undoRemaining + Math.max(0, placements));
+		Log.fine("PlacementJournal undoing " + undoRemaining + " of " + count + " placement(s)");
+		return undoRemaining;
+	}
+
+	/** Stop undoing, abandoning any block being dug */
+	public void cancelUndo() {
+		undoRemaining = 0;
+		stopDigging();
+	}
+
+	/**
+	 * Forget every placement and any undo in progress. Called when the client world is unloaded,
+	 * as the journalled positions belong to that world.
+	 */
+	public void clear() {
+		next = 0;
+		count = 0;
+		undoRemaining = 0;
+		digging = NONE; // the block being dug went with the world
+	}
+
+	/** @return the number of placements in the journal */
+	public int getCount() {
+		return count;
+	}
+
+	/** @return the number of placements still to undo */
+	public int getUndoRemaining() {
+		return undoRemaining;
+	}
+
+	/** @return the number of placements undone since start up */
+	public long getUndoneCount() {
+		return undoneCount;
+	}
+
+	/**
+	 * Break the next placement to undo. Called once per client tick.
+	 * @param mc is the Minecraft instance
+	 */
+	public void tick(Minecraft mc) {
+		if (undoRemaining == 0) return;
+		World theWorld = mc.theWorld;
+		double reach = (double) mc.playerController.getBlockReachDistance();
+		while (undoRemaining > 0) {
+			int i = (next - 1) & INDEX_MASK;
+			long p = placed[i];
+			int x = Coordinate.unpackX(p), y = Coordinate.unpackY(p), z = Coordinate.unpackZ(p);
+			if (!isJournalledBlock(theWorld, i, x, y, z)) {
+				if (digging == p) {
+					undoneCount++;	// dug out on an earlier tick
+					digging = NONE;
+				} else {
+					Log.finer("PlacementJournal skipping " + Coordinate.format(p) + " - block changed");
+				}
+				pop();
+				continue;
+			}
+			if (mc.thePlayer.getDistanceSq(x + 0.5D, y + 0.5D, z + 0.5D) > reach * reach) {
+				Log.finer("PlacementJournal skipping " + Coordinate.format(p) + " - out of reach");
+				pop();
+				continue;
+			}
+			if (mc.playerController.isInCreativeMode()) {
+				mc.playerController.clickBlock(x, y, z, side[i]);
+				undoneCount++;
+				pop();
+			} else if (digging != p) {
+				stopDigging();
+				digging = p;
+				mc.playerController.clickBlock(x, y, z, side[i]);
+			} else {
+				mc.playerController.onPlayerDamageBlock(x, y, z, side[i]);
+			}
+			mc.thePlayer.swingItem();
+			return;
+		}
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** @return true if the block journalled in entry i is still at its position */
+	private boolean isJournalledBlock(World theWorld, int i, int x, int y, int z) {
+		int id = theWorld.getBlockId(x, y, z);
+		if (blockId[i] == PlacementLedger.ANY_BLOCK) {
+			return (id != 0 && !CapabilityIndex.isLiquid(id));
+		}
+		return (id == blockId[i] && (meta[i] < 0 || theWorld.getBlockMetadata(x, y, z) == meta[i]));
+	}
+
+	/** Drop the newest entry */
+	private void pop() {
+		next = (next - 1) & INDEX_MASK;
+		count--;
+		undoRemaining--;
+		if (undoRemaining == 0) stopDigging();
+	}
+
+	/** Abandon any block being dug */
+	private void stopDigging() {
+		if (digging != NONE) {
+			digging = NONE;
+			Minecraft.getMinecraft().playerController.resetBlockRemoving();
+		}
+	}
+}
\ No newline at end of file
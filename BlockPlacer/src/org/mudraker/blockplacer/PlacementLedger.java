@@ -0,0 +1,297 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.world.World;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer speculative placement ledger.
+ * <p>Records placements the client has issued but the server has not yet confirmed, so that
+ * auto-repeat can move on to the next position without waiting a round trip for the block
+ * to appear in the client world.</p>
+ * <p>Entries are held oldest first in a ring of primitive arrays. An entry is confirmed when
+ * the expected block is seen at its position, or when it has been pending for
+ * {@link #CONFIRM_TICKS} and the block is present. It is rolled back when the server reverts a
+ * block the client had predicted, or when the block has still not appeared after the timeout.
+ * Rolling back an entry also discards the newer entries placed against its block, directly or
+ * through another discarded entry, and returns BlockPlacer to the position and side the oldest
+ * discarded entry placed from the placement itself was placed from. Newer entries placed against
+ * other blocks stay pending.</p>
+ * <p>A placement already in the client world that went to the server as a vanilla place packet
+ * gets no reply unless the server reverts it, so it can only be confirmed by the timeout. Such
+ * placements are still held for the timeout to catch a revert, but are left out of the
+ * {@link #getAwaitingCount awaiting count} that the placement pacing is capped by.</p>
+ *
+ * <p>Pattern: Singleton Ring Buffer</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class PlacementLedger {
+	// Singleton instance enforcement
+	private final static PlacementLedger instance = new PlacementLedger(); // Singleton instance
+	public static PlacementLedger getInstance() { return instance; } // Return singleton for access
+	private PlacementLedger() {} // Singleton: Prevent additional instantiation
+
+	/** Maximum number of unconfirmed placements (power of 2) */
+	public static final int CAPACITY = 64;
+
+	/** Ticks to wait for the server before resolving an entry from the client world */
+	public static final int CONFIRM_TICKS = 40;
+
+	/** Expected block ID meaning any non-liquid block will do (e.g. multipart items) */
+	public static final int ANY_BLOCK = -1;
+
+	private static final int INDEX_MASK = CAPACITY - 1;
+
+	// Ring buffer of pending entries
+	private final long[] placed = new long[CAPACITY];	// packed position of the placed block
+	private final long[] from = new long[CAPACITY];		// packed place position it was placed against
+	private final int[] side = new int[CAPACITY];		// place side it was placed on
+	private final int[] blockId = new int[CAPACITY];	// expected block ID or ANY_BLOCK
+	private final boolean[] predicted = new boolean[CAPACITY]; // was the block already in the client world
+	private final boolean[] batched = new boolean[CAPACITY]; // was it sent in a bulk batch that will be acknowledged
+	private final boolean[] fromPlacement = new boolean[CAPACITY]; // was it placed from the placement itself
+	private final long[] issued = new long[CAPACITY];	// tick the placement was issued
+	private int head = 0;
+	private int count = 0;
+
+	/** Positions of the entries discarded by the roll back in progress */
+	private final long[] discarded = new long[CAPACITY];
+
+	// Statistics
+	private long confirmedCount = 0;
+	private long rolledBackCount = 0;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Record a placement that has been sent to the server.
+	 * @param placedPosition is the packed position the block will occupy
+	 * @param fromPosition is the packed place position the block was placed against
+	 * @param placeSide is the side of the place position it was placed on
+	 * @param expectedId is the block ID expected or {@link #ANY_BLOCK}
+	 * @param inClientWorld is true if the block is already present in the client world
+	 * @param inBatch is true if it was sent in a bulk batch, so the server will acknowledge it
+	 * @param fromCurrent is true if it was placed from the placement, rather than a shape, stamp or mirror image
+	 * @param tick is the current client tick
+	 */
+	public void record(long placedPosition, long fromPosition, int placeSide, int expectedId, boolean inClientWorld,
+			boolean inBatch, boolean fromCurrent, long tick) {
+		if (count == CAPACITY) {
+			Log.fine("PlacementLedger full - assuming oldest placement confirmed");
+			confirmOldest();
+		}
+		int i = (head + count++) & INDEX_MASK;
+		placed[i] = placedPosition;
+		from[i] = fromPosition;
+		side[i] = placeSide;
+		blockId[i] = expectedId;
+		predicted[i] = inClientWorld;
+		batched[i] = inBatch;
+		fromPlacement[i] = fromCurrent;
+		issued[i] = tick;
+	}
+
+	/**
+	 * @param position is a packed world position
+	 * @return true if a placement at the position is awaiting confirmation
+	 */
+	public boolean isPending(long position) {
+		for (int n = 0; n < count; n++) {
+			if (placed[(head + n) & INDEX_MASK] == position) return true;
+		}
+		return false;
+	}
+
+	/** @return the number of placements awaiting confirmation */
+	public int getPendingCount() {
+		return count;
+	}
+
+	/**
+	 * @return the number of placements the server has still to show or acknowledge, leaving out
+	 * 		those already in the client world that will not be acknowledged
+	 */
+	public int getAwaitingCount() {
+		int awaiting = 0;
+		for (int n = 0; n < count; n++) {
+			int i = (head + n) & INDEX_MASK;
+			if (!predicted[i] || batched[i]) awaiting++;
+		}
+		return awaiting;
+	}
+
+	/** @return the number of placements confirmed since start up */
+	public long getConfirmedCount() {
+		return confirmedCount;
+	}
+
+	/** @return the number of placements rolled back since start up */
+	public long getRolledBackCount() {
+		return rolledBackCount;
+	}
+
+	/** Forget all pending placements without rolling back - used when the placement is reset */
+	public void clear() {
+		head = 0;
+		count = 0;
+	}
+
+	/**
+	 * Check a block change notification against the pending placements.
+	 * Called by the {@link PlaceTracker} for every block update in the world.
+	 * @param theWorld is the world
+	 * @param x is the changed block X coordinate
+	 * @param y is the changed block Y coordinate
+	 * @param z is the changed block Z coordinate
+	 */
+	public void onBlockChange(World theWorld, int x, int y, int z) {
+		if (count == 0) return;
+		long position = Coordinate.pack(x, y, z);
+		for (int n = 0; n < count; n++) {
+			int i = (head + n) & INDEX_MASK;
+			if (placed[i] == position) {
+				if (isExpectedBlock(theWorld, i)) {
+					confirm(n);
+				} else if (predicted[i]) {
+					rollBack(n, "reverted by server");
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Resolve a pending placement from a server acknowledgement - see {@link BulkSender}.
+	 * @param position is the packed position the block was placed at
+	 * @param wasPlaced is true if the server made the placement
+	 */
+	public void acknowledge(long position, boolean wasPlaced) {
+		for (int n = 0; n < count; n++) {
+			if (placed[(head + n) & INDEX_MASK] == position) {
+				if (wasPlaced) {
+					confirm(n);
+				} else {
+					rollBack(n, "rejected by server");
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Resolve placements that have waited {@link #CONFIRM_TICKS} from the client world.
+	 * Called once per client tick.
+	 * @param theWorld is the world
+	 * @param tick is the current client tick
+	 */
+	public void tick(World theWorld, long tick) {
+		while (count > 0 && tick - issued[head] >= CONFIRM_TICKS) {
+			if (isExpectedBlock(theWorld, head)) {
+				confirmOldest();
+			} else {
+				rollBack(0, "timed out");
+			}
+		}
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** @return true if the expected block for entry i is present in the world */
+	private boolean isExpectedBlock(World theWorld, int i) {
+		long p = placed[i];
+		int id = theWorld.getBlockId(Coordinate.unpackX(p), Coordinate.unpackY(p), Coordinate.unpackZ(p));
+		return (blockId[i] == ANY_BLOCK) ? (id != 0 && !CapabilityIndex.isLiquid(id)) : (id == blockId[i]);
+	}
+
+	/** Confirm the oldest entry */
+	private void confirmOldest() {
+		head = (head + 1) & INDEX_MASK;
+		count--;
+		confirmedCount++;
+	}
+
+	/**
+	 * Confirm the n'th oldest entry, closing the gap it leaves.
+	 * @param n is the age order of the entry (0 is oldest)
+	 */
+	private void confirm(int n) {
+		for (int m = n; m > 0; m--) {
+			copy((head + m - 1) & INDEX_MASK, (head + m) & INDEX_MASK);
+		}
+		confirmOldest();
+	}
+
+	/** Copy entry src over entry dst */
+	private void copy(int src, int dst) {
+		placed[dst] = placed[src];
+		from[dst] = from[src];
+		side[dst] = side[src];
+		blockId[dst] = blockId[src];
+		predicted[dst] = predicted[src];
+		batched[dst] = batched[src];
+		fromPlacement[dst] = fromPlacement[src];
+		issued[dst] = issued[src];
+	}
+
+	/**
+	 * Roll back the n'th oldest entry and the newer entries that depend on its block, closing
+	 * the gaps they leave.
+	 * @param n is the age order of the entry (0 is oldest)
+	 * @param reason is the reason for logging
+	 */
+	private void rollBack(int n, String reason) {
+		long rejected = placed[(head + n) & INDEX_MASK];
+		long rollBackFrom = 0;
+		int rollBackSide = -1;
+		int discardCount = 0, kept = n;
+		for (int m = n; m < count; m++) {
+			int i = (head + m) & INDEX_MASK;
+			if (m == n || isDiscarded(from[i], discardCount)) {
+				discarded[discardCount++] = placed[i];
+				if (fromPlacement[i] && rollBackSide < 0) {
+					rollBackFrom = from[i];
+					rollBackSide = side[i];
+				}
+			} else {
+				if (kept != m) copy(i, (head + kept) & INDEX_MASK);
+				kept++;
+			}
+		}
+		Log.fine("PlacementLedger rolling back " + discardCount + " placement(s) from " + Coordinate.format(rejected) + " - " + reason);
+		rolledBackCount += discardCount;
+		count = kept;
+		if (rollBackSide >= 0) {
+			BlockPlacer.rollBackPlacement(rollBackFrom, rollBackSide);
+		} else {
+			PlaceTracker.getInstance().invalidate();
+		}
+	}
+
+	/**
+	 * @param position is a packed world position
+	 * @param discardCount is the number of entries discarded so far
+	 * @return true if the position is the block of an entry being discarded
+	 */
+	private boolean isDiscarded(long position, int discardCount) {
+		for (int d = 0; d < discardCount; d++) {
+			if (discarded[d] == position) return true;
+		}
+		return false;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.util.MathHelper;
+
+/**
+ * BlockPlacer voxel ray caster.
+ * <p>Walks a view ray through the block grid one voxel at a time (Amanatides &amp; Woo DDA)
+ * to decide whether a block that has just been placed now sits in front of the previous
+ * ray trace hit. Only primitives are used so it never allocates.</p>
+ * <p>This is not a replacement for a full Minecraft ray trace - it treats the placed block as
+ * a full cube and assumes everything between the eye and the previous hit was already clear.</p>
+ *
+ * <p>Pattern: Enforced Static Immutable</p>
+ *
+ * @author MudRaker
+ */
+public class RayCaster {
+	private RayCaster() {} // Static: Prevent instantiation
+
+	/** Degrees to radians as used by Minecraft getLook() */
+	private static final float DEG_TO_RAD = 0.017453292F;
+
+	/** Voxel steps before giving up - far more than any block reach needs */
+	private static final int MAX_STEPS = 64;
+
+	/**
+	 * Cast the view ray of a player rotation from an eye position, looking for the placed block.
+	 * The look vector is calculated the same way as EntityLivingBase.getLook().
+	 * @param eyeX is the eye X position
+	 * @param eyeY is the eye Y position
+	 * @param eyeZ is the eye Z position
+	 * @param yaw is the player rotation yaw
+	 * @param pitch is the player rotation pitch
+	 * @param reach is the block reach distance
+	 * @param placed is the packed position of the placed block
+	 * @param previous is the packed position of the previous ray trace hit
+	 * @return the side of the placed block the ray enters through, or -1 if the ray reaches
+	 * 		the previous hit or the reach limit first
+	 */
+	public static int castToPlaced(double eyeX, double eyeY, double eyeZ, float yaw, float pitch,
+			double reach, long placed, long previous) {
+		float cosYaw = MathHelper.cos(-yaw * DEG_TO_RAD - (float) Math.PI);
+		float sinYaw = MathHelper.sin(-yaw * DEG_TO_RAD - (float) Math.PI);
+		float cosPitch = -MathHelper.cos(-pitch * DEG_TO_RAD);
+		float sinPitch = MathHelper.sin(-pitch * DEG_TO_RAD);
+		return cast(eyeX, eyeY, eyeZ, sinYaw * cosPitch, sinPitch, cosYaw * cosPitch, reach, placed, previous);
+	}
+
+	/**
+	 * Cast a ray through the block grid looking for the placed block.
+	 * @param x is the ray origin X
+	 * @param y is the ray origin Y
+	 * @param z is the ray origin Z
+	 * @param dx is the ray direction X (unit length)
+	 * @param dy is the ray direction Y (unit length)
+	 * @param dz is the ray direction Z (unit length)
+	 * @param reach is the maximum ray length
+	 * @param placed is the packed position of the placed block
+	 * @param previous is the packed position of the previous ray trace hit
+	 * @return the side of the placed block the ray enters through, or -1 if the ray reaches
+	 * 		the previous hit or the reach limit first
+	 */
+	public static int cast(double x, double y, double z, double dx, double dy, double dz,
+			double reach, long placed, long previous) {
+		int bx = MathHelper.floor_double(x);
+		int by = MathHelper.floor_double(y);
+		int bz = MathHelper.floor_double(z);
+		int stepX = (dx > 0) ? 1 : -1;
+		int stepY = (dy > 0) ? 1 : -1;
+		int stepZ = (dz > 0) ? 1 : -1;
+
+		// Ray length to cross one voxel on each axis, and to the first boundary on each axis
+		double deltaX = (dx == 0) ? Double.MAX_VALUE : Math.abs(1.0D / dx);
+		double deltaY = (dy == 0) ? Double.MAX_VALUE : Math.abs(1.0D / dy);
+		double deltaZ = (dz == 0) ? Double.MAX_VALUE : Math.abs(1.0D / dz);
+		double nextX = (dx == 0) ? Double.MAX_VALUE : ((stepX > 0) ? (bx + 1 - x) : (x - bx)) * deltaX;
+		double nextY = (dy == 0) ? Double.MAX_VALUE : ((stepY > 0) ? (by + 1 - y) : (y - by)) * deltaY;
+		double nextZ = (dz == 0) ? Double.MAX_VALUE : ((stepZ > 0) ? (bz + 1 - z) : (z - bz)) * deltaZ;
+
+		for (int step = 0; step < MAX_STEPS; step++) {
+			int side;
+			double travelled;
+			if (nextX <= nextY && nextX <= nextZ) {
+				bx += stepX;
+				travelled = nextX;
+				nextX += deltaX;
+				side = (stepX > 0) ? Const.SIDE_WEST : Const.SIDE_EAST;
+			} else if (nextY <= nextZ) {
+				by += stepY;
+				travelled = nextY;
+				nextY += deltaY;
+				side = (stepY > 0) ? Const.SIDE_BOTTOM : Const.SIDE_TOP;
+			} else {
+				bz += stepZ;
+				travelled = nextZ;
+				nextZ += deltaZ;
+				side = (stepZ > 0) ? Const.SIDE_NORTH : Const.SIDE_SOUTH;
+			}
+			if (travelled > reach) return -1;
+			long voxel = Coordinate.pack(bx, by, bz);
+			if (voxel == placed) return side;
+			if (voxel == previous) return -1;
+		}
+		return -1;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import net.minecraft.entity.player.EntityPlayer;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.common.IPlayerTracker;
+
+/**
+ * BlockPlacer server side session tracker.
+ * <p>Forgets a player's {@link PlaceSession}, along with any bulk placements still queued on it,
+ * when the player logs out so the session map only ever holds players that are online.</p>
+ *
+ * <p>Pattern: Singleton Player Tracker</p>
+ *
+ * @author MudRaker
+ */
+public class SessionTracker implements IPlayerTracker {
+	// Singleton instance enforcement
+	private final static SessionTracker instance = new SessionTracker(); // Singleton instance
+	public static SessionTracker getInstance() { return instance; } // Return singleton for access
+	private SessionTracker() {} // Singleton: Prevent additional instantiation
+
+	/** Null method - sessions are created on first use */
+	@Override
+	public void onPlayerLogin(EntityPlayer player) {}
+
+	/**
+	 * Forget the player's session.
+	 * @see cpw.mods.fml.common.IPlayerTracker#onPlayerLogout(net.minecraft.entity.player.EntityPlayer)
+	 */
+	@Override
+	public void onPlayerLogout(EntityPlayer player) {
+		PlaceSession.remove(player);
+		Log.fine("Session removed for " + player.username + " - " + PlaceSession.getSessionCount() + " remaining");
+	}
+
+	/** Null method - the session follows the player */
+	@Override
+	public void onPlayerChangedDimension(EntityPlayer player) {}
+
+	/** Null method - the session follows the player */
+	@Override
+	public void onPlayerRespawn(EntityPlayer player) {}
+}
\ No newline at end of file
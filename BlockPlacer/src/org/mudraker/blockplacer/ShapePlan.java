@@ -0,0 +1,222 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.util.Arrays;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
+
+/**
+ * BlockPlacer shape placement planner.
+ * <p>Turns the current place position and side plus a {@link Config.ShapeMode} and size into a
+ * placement plan - a flat array of {@link #STRIDE} longs per placement holding the packed
+ * position to place against and the side to place on. The plan is ordered breadth first out
+ * from the first block so every placement is against the clicked block or a block placed
+ * earlier in the plan.</p>
+ * <p>Shapes are laid out on three axes: across (the player's right), out (the place side if
+ * it is horizontal, otherwise the player's front) and up (down if placing underneath). A LINE
+ * runs along the place side like auto-repeat, a WALL spans across and up, a FLOOR spans across
+ * and out, and a BOX is the hollow shell spanning all three. Shapes are centred across the
+ * first block.</p>
+ * <p>{@link #filter} makes one pass of validity checks over a plan and drops the placements that
+ * cannot happen, so execution is just issuing the placements in order.</p>
+ *
+ * <p>Pattern: Enforced Static Utility</p>
+ *
+ * @author MudRaker
+ */
+public class ShapePlan {
+	private ShapePlan() {} // Static: Prevent instantiation
+
+	/** Longs per placement in a plan: position to place against, then side */
+	public static final int STRIDE = 2;
+
+	/** Largest shape edge length */
+	public static final int MAX_SIZE = 16;
+
+	/** Bits of the side word holding the side - the rest holds the parent index until filtered */
+	private static final long SIDE_MASK = 0xFFL;
+	private static final int PARENT_SHIFT = 8;
+
+	// Axis and direction of each of the six steps to a neighbouring cell
+	private static final int[] STEP_AXIS = new int[] {0, 0, 1, 1, 2, 2};
+	private static final int[] STEP_SIGN = new int[] {1, -1, 1, -1, 1, -1};
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Build a placement plan.
+	 * @param shape is the shape to build
+	 * @param size is the shape edge length (1 to {@link #MAX_SIZE})
+	 * @param position is the packed place position
+	 * @param side is the place side
+	 * @param replaceable is true if the place position is itself replaced by the first placement
+	 * @param facing is the player facing (NSEW side)
+	 * @return the plan of {@link #STRIDE} longs per placement, unfiltered
+	 */
+	public static long[] build(Config.ShapeMode shape, int size, long position, int side, boolean replaceable, int facing) {
+		size = Math.max(1, Math.min(size, MAX_SIZE));
+		int up = (side == Const.SIDE_BOTTOM) ? Const.SIDE_BOTTOM : Const.SIDE_TOP;
+		int out = (side >= Const.SIDE_NORTH) ? side : Const.REL_DIR_TO_SIDE[facing][Const.DIR_FRONT];
+		int across = Const.REL_DIR_TO_SIDE[out][Const.DIR_RIGHT];
+
+		// Axis sides, lengths and the offset of the first block along the first axis
+		int[] axis = new int[3];
+		int[] length = new int[] {1, 1, 1};
+		int offset = 0;
+		switch (shape) {
+		case LINE:
+			axis[0] = side;
+			length[0] = size;
+			break;
+		case WALL:
+			axis[0] = across;
+			axis[1] = up;
+			length[0] = length[1] = size;
+			offset = (size - 1) / 2;
+			break;
+		case FLOOR:
+			axis[0] = across;
+			axis[1] = out;
+			length[0] = length[1] = size;
+			offset = (size - 1) / 2;
+			break;
+		case BOX:
+			axis[0] = across;
+			axis[1] = out;
+			axis[2] = up;
+			length[0] = length[1] = length[2] = size;
+			offset = (size - 1) / 2;
+			break;
+		default:
+			axis[0] = side;
+			break;
+		}
+		boolean hollow = (shape == Config.ShapeMode.BOX);
+
+		// Breadth first from the first block over the cells of the shape
+		int[] stride = new int[] {1, length[0], length[0] * length[1]};
+		int cells = length[0] * length[1] * length[2];
+		int[] queue = new int[cells];
+		int[] entryOf = new int[cells];
+		long[] cellPosition = new long[cells];
+		Arrays.fill(entryOf, -1);
+		long[] plan = new long[cells * STRIDE];
+		int first = offset;
+		cellPosition[first] = replaceable ? position : Coordinate.adjacent(position, side);
+		plan[0] = position;
+		plan[1] = side | (-1L << PARENT_SHIFT);
+		entryOf[first] = 0;
+		queue[0] = first;
+		int head = 0, tail = 1;
+		while (head < tail) {
+			int cell = queue[head++];
+			for (int step = 0; step < 6; step++) {
+				int a = STEP_AXIS[step];
+				int local = (cell / stride[a]) % length[a] + STEP_SIGN[step];
+				if (local < 0 || local >= length[a]) continue;
+				int next = cell + STEP_SIGN[step] * stride[a];
+				if (entryOf[next] >= 0 || (hollow && !onShell(next, length))) continue;
+				int stepSide = (STEP_SIGN[step] > 0) ? axis[a] : axis[a] ^ 1; // sides pair up as opposites
+				cellPosition[next] = Coordinate.adjacent(cellPosition[cell], stepSide);
+				plan[tail * STRIDE] = cellPosition[cell];
+				plan[tail * STRIDE + 1] = stepSide | ((long) entryOf[cell] << PARENT_SHIFT);
+				entryOf[next] = tail;
+				queue[tail++] = next;
+			}
+		}
+		if (tail * STRIDE < plan.length) {
+			long[] trimmed = new long[tail * STRIDE];
+			System.arraycopy(plan, 0, trimmed, 0, trimmed.length);
+			plan = trimmed;
+		}
+		return plan;
+	}
+
+	/**
+	 * Drop the placements of a plan that cannot happen, compacting the plan in place. A placement
+	 * is dropped if its block position is occupied, out of reach, the block it is placed against
+	 * will not be there or can activate, or the held item cannot be placed on that side - the same
+	 * side check as a single placement makes. Occupied positions still count as blocks to place
+	 * against unless they can activate.
+	 * @param plan is an unfiltered plan from {@link #build}
+	 * @param blocks is the block source to check against
+	 * @param session is the placement session whose side check is used
+	 * @param theWorld is the current world
+	 * @param entityPlayer is the player placing
+	 * @param fromX is the X coordinate reach is measured from
+	 * @param fromY is the Y coordinate reach is measured from
+	 * @param fromZ is the Z coordinate reach is measured from
+	 * @param reach is the reach distance
+	 * @return the number of placements kept
+	 */
+	public static int filter(long[] plan, BlockSource blocks, PlaceSession session, World theWorld, EntityPlayer entityPlayer,
+			double fromX, double fromY, double fromZ, double reach) {
+		int entries = plan.length / STRIDE;
+		boolean[] support = new boolean[entries];
+		double reachSq = reach * reach;
+		int kept = 0;
+		for (int entry = 0; entry < entries; entry++) {
+			long against = plan[entry * STRIDE];
+			int side = (int) (plan[entry * STRIDE + 1] & SIDE_MASK);
+			int parent = (int) (plan[entry * STRIDE + 1] >> PARENT_SHIFT);
+			long target = (parent < 0 && blocks.isReplaceable(Coordinate.unpackX(against), Coordinate.unpackY(against),
+					Coordinate.unpackZ(against))) ? against : Coordinate.adjacent(against, side);
+			int x = Coordinate.unpackX(target), y = Coordinate.unpackY(target), z = Coordinate.unpackZ(target);
+			int blockId = blocks.getBlockId(x, y, z);
+			if (blockId != 0 && !blocks.isReplaceable(x, y, z)) {
+				// Already built or obstructed - still solid to place against unless it would be used instead
+				support[entry] = !CapabilityIndex.canActivate(blockId);
+				continue;
+			}
+			double dx = x + 0.5D - fromX, dy = y + 0.5D - fromY, dz = z + 0.5D - fromZ;
+			if ((parent >= 0 ? !support[parent] : CapabilityIndex.canActivate(blocks.getBlockId(Coordinate.unpackX(against),
+					Coordinate.unpackY(against), Coordinate.unpackZ(against))))
+					|| dx * dx + dy * dy + dz * dz > reachSq
+					|| !session.canPlaceOnSide(theWorld, entityPlayer, against, side)) {
+				continue;
+			}
+			support[entry] = true;
+			plan[kept * STRIDE] = against;
+			plan[kept * STRIDE + 1] = side;
+			kept++;
+		}
+		return kept;
+	}
+
+	/**
+	 * @param plan is a filtered plan
+	 * @param entry is the placement index
+	 * @return the packed position to place against
+	 */
+	public static long getPosition(long[] plan, int entry) {
+		return plan[entry * STRIDE];
+	}
+
+	/**
+	 * @param plan is a filtered plan
+	 * @param entry is the placement index
+	 * @return the side to place on
+	 */
+	public static int getSide(long[] plan, int entry) {
+		return (int) (plan[entry * STRIDE + 1] & SIDE_MASK);
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** @return true if a local cell lies on the outside of the shape */
+	private static boolean onShell(int cell, int[] length) {
+		int i = cell % length[0], j = (cell / length[0]) % length[1], k = cell / (length[0] * length[1]);
+		return i == 0 || i == length[0] - 1 || j == 0 || j == length[1] - 1 || k == 0 || k == length[2] - 1;
+	}
+}
\ No newline at end of file
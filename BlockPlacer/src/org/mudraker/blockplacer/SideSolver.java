@@ -0,0 +1,209 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+/**
+ * BlockPlacer side selection solver.
+ * <p>Answers the rotate, adjust, mouse shift and smart start side decisions from lookup
+ * tables derived once from the {@link Const} translation tables. Every table is indexed
+ * by a 6-bit side validity mask (bit n is set if a block can be placed on side n of the
+ * target), so once the mask for a target is known no further world queries are needed
+ * to cycle around it.</p>
+ * <p>The tables are built by running the original retry loops against every possible mask
+ * so the decisions are identical to testing each side in turn against the world.</p>
+ *
+ * <p>Pattern: Enforced Static Immutable</p>
+ *
+ * @author MudRaker
+ */
+public class SideSolver {
+	private SideSolver() {} // Static: Prevent instantiation
+
+	/** Number of distinct side validity masks */
+	public static final int MASK_COUNT = 1 << 6;
+
+	/** Side validity mask with no valid sides */
+	public static final int NO_SIDES = 0;
+
+	/** Side validity mask with all six sides valid */
+	public static final int ALL_SIDES = MASK_COUNT - 1;
+
+	/** Number of sides in the forward / backward adjust cycle (plus one retry as per original loop) */
+	private static final int ADJUST_ATTEMPTS = 7;
+
+	/** Number of sides in a plane rotation (plus one retry as per original loop) */
+	private static final int ROTATE_ATTEMPTS = 5;
+
+	/**
+	 * Forward / backward adjust results.
+	 * <p>Usage: ADJUST[forwardOrBack][playerFacing][side][mask]</p>
+	 * Outputs the new side or -1 if there is no other valid side.
+	 */
+	private static final byte[][][][] ADJUST = new byte[2][6][6][MASK_COUNT];
+
+	/**
+	 * ROTATE3D plane rotation results.
+	 * <p>Usage: ROTATE[pitch][rotateDirection][playerFacing][side][mask]</p>
+	 * Outputs the new side or -1 if there is no other valid side on the plane.
+	 */
+	private static final byte[][][][][] ROTATE = new byte[3][4][6][6][MASK_COUNT];
+
+	/**
+	 * 'Smart Start' results including the fallback forward adjust from the side hit.
+	 * <p>Usage: DEFAULT[pitch][playerFacing][sideHit][mask]</p>
+	 * Outputs the starting side or -1 if there is no valid side at all.
+	 */
+	private static final byte[][][][] DEFAULT = new byte[3][6][6][MASK_COUNT];
+
+	// Build all the lookup tables once
+	static {
+		for (int facing = 0; facing < 6; facing++) {
+			for (int side = 0; side < 6; side++) {
+				for (int mask = 0; mask < MASK_COUNT; mask++) {
+					for (int fwdBack = 0; fwdBack < 2; fwdBack++) {
+						ADJUST[fwdBack][facing][side][mask] = (byte) simulateAdjust(facing, side, fwdBack, mask);
+					}
+					for (int pitch = 0; pitch < 3; pitch++) {
+						for (int rotateDirection = 0; rotateDirection < 4; rotateDirection++) {
+							ROTATE[pitch][rotateDirection][facing][side][mask] =
+									(byte) simulateRotate(pitch, facing, side, rotateDirection, mask);
+						}
+						DEFAULT[pitch][facing][side][mask] = (byte) simulateDefault(pitch, facing, side, mask);
+					}
+				}
+			}
+		}
+	}
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Checks a side validity mask for a specific side.
+	 * @param mask is the side validity mask
+	 * @param side is the block side to check
+	 * @return true if the side is valid in the mask
+	 */
+	public static boolean isValid(int mask, int side) {
+		return (mask & (1 << side)) != 0;
+	}
+
+	/**
+	 * Forward / backward adjust from a side to the next valid side.
+	 * @param facing is the player facing as per getPlayerDirection() - NESW only
+	 * @param side is the current side
+	 * @param forward is true for forward or false for backward
+	 * @param mask is the side validity mask of the position
+	 * @return the new side or -1 if no other side is valid
+	 */
+	public static int adjust(int facing, int side, boolean forward, int mask) {
+		return ADJUST[forward ? 0 : 1][facing][side][mask];
+	}
+
+	/**
+	 * ROTATE3D plane rotation from a side to the next valid side on the rotation plane.
+	 * @param pitch is the player pitch zone as per playerPitch()
+	 * @param facing is the player facing as per getPlayerDirection() - NESW only
+	 * @param side is the current side
+	 * @param rotateDirection is the rotation key as per the KeyBind ROTxx constants
+	 * @param mask is the side validity mask of the position
+	 * @return the new side or -1 if no other side is valid
+	 */
+	public static int rotate(int pitch, int facing, int side, int rotateDirection, int mask) {
+		return ROTATE[pitch][rotateDirection][facing][side][mask];
+	}
+
+	/**
+	 * Mouse shift to the side in a relative direction.
+	 * @param facing is the player facing as per getPlayerDirection() - NESW only
+	 * @param side is the current side
+	 * @param relDir is the relative direction of the mouse movement
+	 * @param mask is the side validity mask of the position
+	 * @return the new side or -1 if unchanged or not valid
+	 */
+	public static int mouseShift(int facing, int side, int relDir, int mask) {
+		int newSide = Const.REL_DIR_TO_SIDE[facing][relDir];
+		return (newSide != side && isValid(mask, newSide)) ? newSide : -1;
+	}
+
+	/**
+	 * 'Smart Start' default side selection, falling back to a forward adjust from the side hit.
+	 * @param pitch is the player pitch zone as per playerPitch()
+	 * @param facing is the player facing as per getPlayerDirection() - NESW only
+	 * @param sideHit is the side the player is pointing at
+	 * @param mask is the side validity mask of the position
+	 * @return the starting side or -1 if impossible
+	 */
+	public static int defaultPlace(int pitch, int facing, int sideHit, int mask) {
+		return DEFAULT[pitch][facing][sideHit][mask];
+	}
+
+	// **************************************
+	// Table builders
+	// **************************************
+
+	/**
+	 * Replays the original forward / backward retry loop against a mask.
+	 * @return the new side or -1
+	 */
+	private static int simulateAdjust(int facing, int side, int fwdBack, int mask) {
+		if (Const.SIDE_TO_REL_DIR[facing].length == 0) return -1; // not a NESW facing
+		int count = 0;
+		int newSide = adjustStep(facing, side, fwdBack);
+		while (!isValid(mask, newSide) && ++count < ADJUST_ATTEMPTS) {
+			newSide = adjustStep(facing, newSide, fwdBack);
+		}
+		return (newSide != side && count < ADJUST_ATTEMPTS) ? newSide : -1;
+	}
+
+	/** @return the next side in the forward / backward adjust cycle */
+	private static int adjustStep(int facing, int side, int fwdBack) {
+		int relativeDirection = Const.SIDE_TO_REL_DIR[facing][side];
+		return Const.REL_DIR_TO_SIDE[facing][Const.REL_DIR_ROTATE[fwdBack][relativeDirection]];
+	}
+
+	/**
+	 * Replays the original plane rotation retry loop against a mask.
+	 * @return the new side or -1
+	 */
+	private static int simulateRotate(int pitch, int facing, int side, int rotateDirection, int mask) {
+		if (Const.SIDE_TO_REL_DIR[facing].length == 0) return -1; // not a NESW facing
+		int plane = Const.PLANE_TRANSLATE[pitch][rotateDirection][facing];
+		if (plane < 0) return -1;
+
+		int count = 0;
+		int newSide = Const.PLANE_ROTATE[plane][side];
+		if (newSide < 0) {
+			newSide = Const.REL_DIR_TO_SIDE[facing][Const.PLANE_DEFAULT_REL_DIR[pitch]];
+		}
+		while (newSide != side && !isValid(mask, newSide) && ++count < ROTATE_ATTEMPTS) {
+			newSide = Const.PLANE_ROTATE[plane][newSide];
+			if (newSide < 0) return -1;
+		}
+		return (newSide != side && count < ROTATE_ATTEMPTS) ? newSide : -1;
+	}
+
+	/**
+	 * Replays the original 'smart start' attempts against a mask.
+	 * @return the starting side or -1
+	 */
+	private static int simulateDefault(int pitch, int facing, int sideHit, int mask) {
+		if (Const.SIDE_TO_REL_DIR[facing].length == 0) return -1; // not a NESW facing
+		int relativeDirection = Const.SIDE_TO_REL_DIR[facing][sideHit];
+		int defaultDir;
+		for (int attempt = 0; attempt < Const.DEFAULT_PLACE.length; attempt++) {
+			if ((defaultDir = Const.DEFAULT_PLACE[attempt][pitch][relativeDirection]) < 0)
+				break;
+			int side = Const.REL_DIR_TO_SIDE[facing][defaultDir];
+			if (isValid(mask, side))
+				return side;
+		}
+		return simulateAdjust(facing, sideHit, 0, mask);
+	}
+}
\ No newline at end of file
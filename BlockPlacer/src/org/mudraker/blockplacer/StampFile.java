@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * BlockPlacer stamp pattern file reader.
+ * <p>A stamp file is a header followed by fixed size block records, all big-endian:</p>
+ * <p>Header ({@link #HEADER_SIZE} bytes) - magic 'MRBS', version, a reserved byte, the pattern
+ * size along X, Y and Z as shorts and the record count as an int.<br>
+ * Record ({@link #RECORD_SIZE} bytes) - X, Y and Z offsets from the anchor as shorts, the block
+ * ID as an unsigned short and the metadata as a byte. X is to the right, Y up and Z to the front
+ * of the player.</p>
+ * <p>Records are placed in file order, so each should touch the anchor or an earlier record.</p>
+ * <p>The records are never parsed onto the heap. They are read in place from a memory-mapped
+ * window of {@link #WINDOW_RECORDS} records that moves along the file as it is read, so a
+ * pattern of any size uses the same memory.</p>
+ *
+ * <p>Pattern: Sequential Reader</p>
+ *
+ * @author MudRaker
+ */
+public class StampFile {
+
+	/** File header magic 'MRBS' */
+	public static final int MAGIC = 0x4D524253;
+
+	/** Format version */
+	public static final int VERSION = 1;
+
+	/** Bytes in the header */
+	public static final int HEADER_SIZE = 16;
+
+	/** Bytes in each block record */
+	public static final int RECORD_SIZE = 9;
+
+	/** Records in each mapped window */
+	public static final int WINDOW_RECORDS = 65536;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+
+	/** Pattern size along each axis */
+	public final int sizeX, sizeY, sizeZ;
+
+	/** Number of block records */
+	public final int count;
+
+	/** Mapped window of records and the index of its first record */
+	private MappedByteBuffer window;
+	private int windowFirst, windowCount;
+
+	/** Index of the next record to read */
+	private int next = 0;
+
+	// Last record read
+	public int x, y, z, blockId, meta;
+
+	/**
+	 * Open a stamp file and read its header.
+	 * @param stamp is the stamp file
+	 * @throws IOException if the file cannot be read or is not a stamp of a known version
+	 */
+	public StampFile(File stamp) throws IOException {
+		file = new RandomAccessFile(stamp, "r");
+		channel = file.getChannel();
+		try {
+			if (channel.size() < HEADER_SIZE) throw new IOException("Not a BlockPlacer stamp");
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt(0) != MAGIC) throw new IOException("Not a BlockPlacer stamp");
+			int version = header.get(4) & 0xFF;
+			if (version != VERSION) throw new IOException("Unsupported stamp version " + version);
+			sizeX = header.getShort(6);
+			sizeY = header.getShort(8);
+			sizeZ = header.getShort(10);
+			count = header.getInt(12);
+			if (count < 0 || channel.size() < HEADER_SIZE + (long) count * RECORD_SIZE) {
+				throw new IOException("Stamp truncated - expected " + count + " records");
+			}
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Read the next record into {@link #x}, {@link #y}, {@link #z}, {@link #blockId} and {@link #meta},
+	 * mapping the next window of the file if needed.
+	 * @return false at the end of the pattern
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public boolean next() throws IOException {
+		if (next >= count) return false;
+		if (window == null || next >= windowFirst + windowCount) {
+			windowFirst = next;
+			windowCount = Math.min(WINDOW_RECORDS, count - next);
+			window = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + (long) windowFirst * RECORD_SIZE,
+					(long) windowCount * RECORD_SIZE);
+		}
+		int offset = (next - windowFirst) * RECORD_SIZE;
+		x = window.getShort(offset);
+		y = window.getShort(offset + 2);
+		z = window.getShort(offset + 4);
+		blockId = window.getShort(offset + 6) & 0xFFFF;
+		meta = window.get(offset + 8) & 0xFF;
+		next++;
+		return true;
+	}
+
+	/** @return the index of the next record to read */
+	public int getIndex() {
+		return next;
+	}
+
+	/**
+	 * Close the file and drop the reference to the mapped window, so it is released once the
+	 * garbage collector reclaims it. Any further {@link #next} returns false.
+	 */
+	public void close() {
+		window = null;
+		windowFirst = windowCount = 0;
+		next = count;
+		try {
+			file.close();
+		} catch (IOException e) {
+			// Nothing left to read
+		}
+	}
+}
\ No newline at end of file
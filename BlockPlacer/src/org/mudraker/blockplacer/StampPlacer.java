@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.Facing;
+import net.minecraft.world.World;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer stamp placer.
+ * <p>Places the blocks of a {@link StampFile} pattern anchored at the block the current placement
+ * would fill, turned to the player facing with the {@link Const#REL_DIR_TO_SIDE} table. Records are
+ * streamed from the file in order and placed through {@link BlockPlacer#placeAt} with the hotbar
+ * slot holding the block selected, paced like hold-to-place - a burst of up to {@link Config#placeMaxPending}
+ * placements every {@link Config#placeHoldInterval} ticks, see {@link PlaceEngine#getAllowance}.</p>
+ * <p>A record is skipped if its position is already occupied, has no block (or unconfirmed
+ * placement) next to it to place against, or no hotbar slot holds its block. Blocks that can
+ * activate are never placed against. A record out of reach is not skipped - the pattern waits at
+ * it until the player moves within reach.</p>
+ *
+ * <p>Pattern: Singleton Tick Worker</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class StampPlacer {
+	// Singleton instance enforcement
+	private final static StampPlacer instance = new StampPlacer(); // Singleton instance
+	public static StampPlacer getInstance() { return instance; } // Return singleton for access
+	private StampPlacer() {} // Singleton: Prevent additional instantiation
+
+	/** Most records looked at in one tick, so long runs of skipped records cannot stall a frame */
+	public static final int MAX_SCAN = 4096;
+
+	// Outcomes of placing a record
+	private static final int SKIPPED = 0, PLACED = 1, OUT_OF_REACH = 2;
+
+	/** Order sides are tried when looking for a block to place against - below first */
+	private static final int[] SUPPORT_ORDER = new int[] {Const.SIDE_BOTTOM, Const.SIDE_NORTH, Const.SIDE_SOUTH,
+			Const.SIDE_WEST, Const.SIDE_EAST, Const.SIDE_TOP};
+
+	/** Pattern being placed, or null if none */
+	private StampFile stamp = null;
+
+	/** Anchor position and the world sides of the pattern right and front axes */
+	private long anchor;
+	private int right, front;
+
+	/** Reusable uncached world reader */
+	private final BlockSnapshot.WorldSource blocks = new BlockSnapshot.WorldSource();
+
+	/** Tick of the last placements issued */
+	private long lastIssueTick = Long.MIN_VALUE / 2;
+
+	// Progress of the current pattern
+	private int placedCount, skippedCount;
+
+	/** Is the record last read out of reach and waiting to be placed? */
+	private boolean waiting = false;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/**
+	 * Start placing a pattern at the current placement, stopping any pattern in progress.
+	 * @param mc is the Minecraft instance
+	 * @param file is the stamp file
+	 * @return the number of records in the pattern
+	 * @throws IOException if the stamp file cannot be read
+	 */
+	public int start(Minecraft mc, File file) throws IOException {
+		stop();
+		StampFile opened = new StampFile(file);
+		long position = BlockPlacer.getPlacePosition();
+		anchor = BlockPlacer.isPlaceReplaceable() ? position : Coordinate.adjacent(position, BlockPlacer.getPlaceSide());
+		int facing = BlockPlacer.getPlayerFacing(mc.thePlayer);
+		right = Const.REL_DIR_TO_SIDE[facing][Const.DIR_RIGHT];
+		front = Const.REL_DIR_TO_SIDE[facing][Const.DIR_FRONT];
+		placedCount = skippedCount = 0;
+		waiting = false;
+		stamp = opened;
+		Log.fine("Stamp " + file + " of " + stamp.count + " blocks anchored at " + Coordinate.format(anchor)
+				+ " facing " + Facing.facings[facing]);
+		return stamp.count;
+	}
+
+	/** Stop placing the pattern - placements already issued are still confirmed */
+	public void stop() {
+		if (stamp != null) {
+			Log.fine("Stamp stopped at record " + stamp.getIndex() + " of " + stamp.count + ", placed " + placedCount
+					+ ", skipped " + skippedCount);
+			stamp.close();
+			stamp = null;
+			blocks.set(null); // let the old world go
+		}
+	}
+
+	/** @return true if a pattern is being placed */
+	public boolean isActive() {
+		return stamp != null;
+	}
+
+	/** @return the number of records read from the pattern being placed */
+	public int getIndex() {
+		return (stamp == null) ? 0 : stamp.getIndex();
+	}
+
+	/** @return the number of records in the pattern being placed */
+	public int getCount() {
+		return (stamp == null) ? 0 : stamp.count;
+	}
+
+	/** @return the number of blocks placed from the current or last pattern */
+	public int getPlacedCount() {
+		return placedCount;
+	}
+
+	/** @return the number of records skipped from the current or last pattern */
+	public int getSkippedCount() {
+		return skippedCount;
+	}
+
+	/**
+	 * Issue the next placements of the pattern once the pacing interval has passed, stopping at
+	 * the first record out of reach. Called once per client tick.
+	 * @param mc is the Minecraft instance
+	 * @param tick is the current client tick
+	 */
+	public void tick(Minecraft mc, long tick) {
+		if (stamp == null || !BlockPlacer.isPlaceEnabled()) return;
+		int allowance = PlaceEngine.getAllowance(tick, lastIssueTick);
+		if (allowance == 0) {
+			return;
+		}
+		lastIssueTick = tick;
+		EntityPlayer entityPlayer = mc.thePlayer;
+		World theWorld = mc.theWorld;
+		double reach = (double) mc.playerController.getBlockReachDistance();
+		double reachSq = reach * reach;
+		blocks.set(theWorld);
+		try {
+			int issued = 0;
+			for (int scanned = 0; scanned < MAX_SCAN && issued < allowance; scanned++) {
+				if (!waiting && !stamp.next()) {
+					stop();
+					return;
+				}
+				int outcome = placeRecord(mc, entityPlayer, reachSq);
+				waiting = (outcome == OUT_OF_REACH);
+				if (waiting) {
+					break; // try it again next time
+				} else if (outcome == PLACED) {
+					placedCount++;
+					issued++;
+				} else {
+					skippedCount++;
+				}
+			}
+		} catch (IOException e) {
+			Log.warn("Stamp read failed - " + e);
+			stop();
+		}
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/**
+	 * Place the block of the record just read.
+	 * @return {@link #PLACED}, {@link #SKIPPED} or {@link #OUT_OF_REACH}
+	 */
+	private int placeRecord(Minecraft mc, EntityPlayer entityPlayer, double reachSq) {
+		int x = Coordinate.unpackX(anchor) + stamp.x * Facing.offsetsXForSide[right] + stamp.z * Facing.offsetsXForSide[front];
+		int y = Coordinate.unpackY(anchor) + stamp.y;
+		int z = Coordinate.unpackZ(anchor) + stamp.x * Facing.offsetsZForSide[right] + stamp.z * Facing.offsetsZForSide[front];
+		if (stamp.blockId == 0 || (blocks.getBlockId(x, y, z) != 0 && !blocks.isReplaceable(x, y, z))) {
+			return SKIPPED;
+		}
+		if (entityPlayer.getDistanceSq(x + 0.5D, y + 0.5D, z + 0.5D) > reachSq) {
+			return OUT_OF_REACH;
+		}
+
+		// Find a block to place against
+		long target = Coordinate.pack(x, y, z);
+		long against = 0L;
+		int side = -1;
+		PlacementLedger ledger = PlacementLedger.getInstance();
+		for (int n = 0; n < SUPPORT_ORDER.length && side < 0; n++) {
+			long next = Coordinate.adjacent(target, SUPPORT_ORDER[n]);
+			int nx = Coordinate.unpackX(next), ny = Coordinate.unpackY(next), nz = Coordinate.unpackZ(next);
+			int id = blocks.getBlockId(nx, ny, nz);
+			if (!CapabilityIndex.canActivate(id)
+					&& ((id != 0 && !blocks.isReplaceable(nx, ny, nz) && !CapabilityIndex.isLiquid(id)) || ledger.isPending(next))) {
+				against = next;
+				side = Facing.oppositeSide[SUPPORT_ORDER[n]];
+			}
+		}
+		if (side < 0 || !InventoryIndex.getInstance().selectHotbarSlot(mc, entityPlayer, stamp.blockId, stamp.meta)) {
+			return SKIPPED;
+		}
+		return BlockPlacer.placeAt(entityPlayer, against, side) ? PLACED : SKIPPED;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as 
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty 
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.util.EnumSet;
+
+import net.minecraft.client.Minecraft;
+
+import cpw.mods.fml.common.ITickHandler;
+import cpw.mods.fml.common.TickType;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer client tick handler.
+ * <p>Establishes the placement once per client tick (20 per second) rather than once per
+ * rendered frame. Runs at the end of the tick so that the ray trace, key, mouse and right
+ * click input processed during the tick are all reflected in the placement drawn by the
+ * following frames.</p>
+ * <p>Also welcomes the player, and while place mode is on hands the start of each rendered
+ * frame to the {@link FrameBudget} and {@link MouseFilter}.</p>
+ * 
+ * <p>Pattern: Singleton Tick Handler</p>
+ * 
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class Tick implements ITickHandler {
+	// Singleton instance enforcement
+	private final static Tick instance = new Tick(); // Singleton instance
+	public static Tick getInstance() { return instance; } // Return singleton for access
+	private Tick() {} // Singleton: Prevent additional instantiation
+
+	/** Process client loop ticks, and render frames only while place mode is on */
+	private static final EnumSet<TickType> tickTypes = EnumSet.of(TickType.CLIENT);
+	private static final EnumSet<TickType> placeTickTypes = EnumSet.of(TickType.CLIENT, TickType.RENDER);
+
+	/** Number of client ticks since start up */
+	private long tickCount = 0;
+
+	/** @return the number of client ticks since start up */
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * Close the frame budget measurement and filter the mouse movement since the last frame -
+	 * client tick work is done at the end of the tick.
+	 * @see cpw.mods.fml.common.ITickHandler#tickStart(java.util.EnumSet, java.lang.Object[])
+	 */
+	@Override
+	public void tickStart(EnumSet<TickType> type, Object... tickData) {
+		if (type.contains(TickType.RENDER)) {
+			FrameBudget.getInstance().frame();
+			MouseFilter.getInstance().frame();
+		}
+	}
+
+	/**
+	 * Re-index changed inventory slots, resolve timed out speculative placements, issue any paced
+	 * hold-to-place or stamp placements, break the next block of any undo, send the tick's batch of
+	 * bulk placements, re-establish the placement for the current ray trace (timed against the
+	 * {@link FrameBudget}) and record it in any trace being captured.
+	 * @see cpw.mods.fml.common.ITickHandler#tickEnd(java.util.EnumSet, java.lang.Object[])
+	 */
+	@Override
+	public void tickEnd(EnumSet<TickType> type, Object... tickData) {
+		if (!type.contains(TickType.CLIENT)) return;
+		Minecraft mc = Minecraft.getMinecraft();
+		tickCount++;
+		if (mc != null && mc.theWorld != null && mc.thePlayer != null) {
+			BlockPlacer.welcomePlayer(mc);
+			InventoryIndex.getInstance().tick(mc.thePlayer.inventory);
+			PlacementLedger.getInstance().tick(mc.theWorld, tickCount);
+			PlaceEngine.getInstance().tick(mc, Event.getInstance().isDrawValid(), tickCount);
+			StampPlacer.getInstance().tick(mc, tickCount);
+			PlacementJournal.getInstance().tick(mc);
+			BulkSender.getInstance().flush();
+			long start = System.nanoTime();
+			Event.getInstance().updatePlacement(mc);
+			if (BlockPlacer.isPlaceEnabled()) FrameBudget.getInstance().record(start); // frames are only closed while on
+			TraceRecorder.getInstance().tick(mc, tickCount, Event.getInstance().isDrawValid());
+		}
+	}
+
+	@Override
+	public EnumSet<TickType> ticks() {
+		return BlockPlacer.isPlaceEnabled() ? placeTickTypes : tickTypes;
+	}
+
+	@Override
+	public String getLabel() {
+		return "BlockPlacer.Tick";
+	}
+}
\ No newline at end of file
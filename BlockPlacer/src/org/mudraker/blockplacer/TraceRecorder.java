@@ -0,0 +1,228 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.MovingObjectPosition;
+
+import org.mudraker.Log;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * BlockPlacer placement trace recorder.
+ * <p>While capturing, writes every input BlockPlacer sees - the player view, held item, ray
+ * trace and neighbourhood each tick, key actions, mouse gestures and solver decisions - to a
+ * binary trace file in the {@link PlaceTrace} format. Started and stopped with /mrbp trace, and
+ * stopped when the world is unloaded. Any write error stops the capture.</p>
+ *
+ * <p>Pattern: Singleton</p>
+ *
+ * @author MudRaker
+ */
+@SideOnly(Side.CLIENT)
+public class TraceRecorder {
+	// Singleton instance enforcement
+	private final static TraceRecorder instance = new TraceRecorder(); // Singleton instance
+	public static TraceRecorder getInstance() { return instance; } // Return singleton for access
+	private TraceRecorder() {} // Singleton: Prevent additional instantiation
+
+	/** Trace being written, or null if not capturing */
+	private DataOutputStream out = null;
+	private File file;
+	private long recordCount;
+
+	// **************************************
+	// Public Interface
+	// **************************************
+
+	/** @return true if a trace is being captured */
+	public boolean isActive() {
+		return out != null;
+	}
+
+	/** @return the trace file being captured, or last captured */
+	public File getFile() {
+		return file;
+	}
+
+	/** @return the number of records written to the trace */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Start capturing to a new trace file, stopping any capture in progress.
+	 * @param traceFile is the file to write
+	 * @return true if the capture started
+	 */
+	public boolean start(File traceFile) {
+		stop();
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(traceFile)));
+			out.writeInt(PlaceTrace.MAGIC);
+			out.writeByte(PlaceTrace.VERSION);
+			Config config = Config.getInstance();
+			out.writeByte(config.mouseThreshold);
+			out.writeByte(config.mouseWobble);
+			file = traceFile;
+			recordCount = 0;
+			Log.info("Trace capture started to " + traceFile);
+			return true;
+		} catch (IOException e) {
+			fail(e);
+			return false;
+		}
+	}
+
+	/** Stop capturing and close the trace file */
+	public void stop() {
+		if (out != null) {
+			try {
+				out.close();
+				Log.info("Trace capture stopped - " + recordCount + " records written to " + file);
+			} catch (IOException e) {
+				Log.warn("Trace capture close failed - " + e);
+			}
+			out = null;
+		}
+	}
+
+	/**
+	 * Record the player view and placement established this tick.
+	 * @param mc is the Minecraft instance
+	 * @param tick is the client tick count
+	 * @param drawn is true if a wire frame is being drawn
+	 */
+	public void tick(Minecraft mc, long tick, boolean drawn) {
+		if (out == null) return;
+		EntityPlayer entityPlayer = mc.thePlayer;
+		PlaceSession session = BlockPlacer.getSession();
+		ItemStack itemStack = entityPlayer.getHeldItem();
+		MovingObjectPosition mop = mc.objectMouseOver;
+		int flags = (session.placeEnabled ? PlaceTrace.FLAG_ENABLED : 0)
+				| (session.placeReplaceable ? PlaceTrace.FLAG_REPLACEABLE : 0)
+				| (drawn ? PlaceTrace.FLAG_DRAWN : 0);
+		try {
+			out.writeByte(PlaceTrace.TICK);
+			out.writeLong(tick);
+			out.writeFloat(entityPlayer.rotationYaw);
+			out.writeFloat(entityPlayer.rotationPitch);
+			out.writeInt(itemStack == null ? 0 : itemStack.itemID);
+			out.writeShort(itemStack == null ? 0 : itemStack.getItemDamage());
+			out.writeLong(mop == null ? 0L : Coordinate.pack(mop));
+			out.writeByte(mop == null ? -1 : mop.sideHit);
+			out.writeLong(session.placePosition);
+			out.writeByte(session.placeSide);
+			out.writeByte(flags);
+			if (session.placeEnabled) {
+				BlockSource blocks = session.getNeighbourhood(mc.theWorld);
+				long p = session.placePosition;
+				int x = Coordinate.unpackX(p), y = Coordinate.unpackY(p), z = Coordinate.unpackZ(p);
+				// Same cell order as the BlockSnapshot
+				for (int dy = -1; dy <= 1; dy++) {
+					for (int dz = -1; dz <= 1; dz++) {
+						for (int dx = -1; dx <= 1; dx++) {
+							out.writeShort(blocks.getBlockId(x + dx, y + dy, z + dz));
+							out.writeByte((blocks.getBlockMetadata(x + dx, y + dy, z + dz) & 0x0F)
+									| (blocks.isReplaceable(x + dx, y + dy, z + dz) ? PlaceTrace.CELL_REPLACEABLE : 0));
+						}
+					}
+				}
+			}
+			recordCount++;
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Record a key control action.
+	 * @param action is the {@link KeyBind} KEY_xx action
+	 */
+	public void key(int action) {
+		if (out == null) return;
+		try {
+			out.writeByte(PlaceTrace.KEY);
+			out.writeByte(action);
+			recordCount++;
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Record a mouse gesture passed to {@link PlaceSession#mouseShiftPlace}.
+	 * @param dx is the horizontal gesture movement
+	 * @param dy is the vertical gesture movement
+	 */
+	public void mouse(int dx, int dy) {
+		if (out == null) return;
+		try {
+			out.writeByte(PlaceTrace.MOUSE);
+			out.writeShort(dx);
+			out.writeShort(dy);
+			recordCount++;
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Record a {@link SideSolver} decision.
+	 * @param kind is the PlaceTrace DECIDE_xx kind
+	 * @param position is the packed position the side mask is for
+	 * @param pitch is the player pitch zone
+	 * @param facing is the player facing
+	 * @param side is the side decided from
+	 * @param param is the rotate direction, forward (0) or back (1), or relative direction
+	 * @param mask is the side validity mask
+	 * @param result is the side decided or -1
+	 */
+	public void decision(int kind, long position, int pitch, int facing, int side, int param, int mask, int result) {
+		if (out == null) return;
+		try {
+			out.writeByte(PlaceTrace.DECISION);
+			out.writeByte(kind);
+			out.writeLong(position);
+			out.writeByte(pitch);
+			out.writeByte(facing);
+			out.writeByte(side);
+			out.writeByte(param);
+			out.writeByte(mask);
+			out.writeByte(result);
+			recordCount++;
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	// **************************************
+	// Privates
+	// **************************************
+
+	/** Stop capturing after a write error */
+	private void fail(IOException e) {
+		Log.warn("Trace capture failed - " + e);
+		try {
+			if (out != null) out.close();
+		} catch (IOException ignored) {
+			// Already failing
+		}
+		out = null;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,322 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.mudraker.Log;
+
+/**
+ * Headless BlockPlacer trace replay.
+ * <p>Reads a trace captured by the {@link TraceRecorder} and replays it through a
+ * {@link HeadlessSession}, reporting any decision whose result differs from the recorded one and
+ * the time taken per decision. The 3x3x3 cube recorded with each tick is the block source the
+ * session reads, so the side masks are rebuilt from the recorded blocks rather than replayed.</p>
+ * <p>Each tick sets the session's placement and view as recorded. KEY and MOUSE records are then
+ * replayed through the session's {@link PlaceSession#adjustPlace}, {@link PlaceSession#rotatePlace}
+ * and {@link PlaceSession#mouseShiftPlace}, and the decision each makes is compared with the
+ * DECISION record that follows it. Decisions made by the tick's placement update (smart start and
+ * fixing an invalid start side) are rerun through {@link PlaceSession#setDefaultPlace} or
+ * {@link PlaceSession#adjustPlace} at their recorded position against the next tick's cube.</p>
+ * <p>Runs from the command line without starting Minecraft, but needs the Minecraft and Forge
+ * jars on the class path for the block tables:</p>
+ * <pre>java -cp blockplacer.jar;minecraft.jar;forge.jar org.mudraker.blockplacer.TraceReplay &lt;trace file&gt; [repeat]</pre>
+ * <p>Decisions that read blocks outside the recorded cube, or that place blocks with their own
+ * placement rules, may legitimately differ - the mismatch report says which read outside it.</p>
+ *
+ * <p>Pattern: Enforced Static Utility</p>
+ *
+ * @author MudRaker
+ */
+public class TraceReplay {
+	private TraceReplay() {} // Static: Prevent instantiation
+
+	/**
+	 * Replay a trace file.
+	 * @param args are the trace file and an optional repeat count for timing
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.err.println("Usage: TraceReplay <trace file> [repeat]");
+			System.exit(2);
+		}
+		int repeat = (args.length > 1) ? Math.max(1, Integer.parseInt(args[1])) : 1;
+		Log.init(Logger.getLogger(ModInfo.ID));
+		Log.setLevel(Level.WARNING);
+
+		// Load the whole trace so the timed passes do not read the disk
+		byte[] trace = null;
+		DataInputStream in = null;
+		try {
+			File file = new File(args[0]);
+			trace = new byte[(int) file.length()];
+			in = new DataInputStream(new FileInputStream(file));
+			in.readFully(trace);
+		} catch (IOException e) {
+			System.err.println("Unable to read trace " + args[0] + " - " + e);
+			System.exit(2);
+		} finally {
+			try {
+				if (in != null) in.close();
+			} catch (IOException ignored) {
+				// Nothing more to read
+			}
+		}
+
+		// Check each decision once, then time the requested number of passes
+		try {
+			Pass check = new Pass(true);
+			check.replay(trace);
+			System.out.println("Records: " + check.ticks + " ticks, " + check.keys + " keys, " + check.mice + " mouse, "
+					+ check.decisions + " decisions");
+			long start = System.nanoTime();
+			long checksum = 0;
+			for (int r = 0; r < repeat; r++) {
+				Pass pass = new Pass(false);
+				pass.replay(trace);
+				checksum = checksum * 31 + pass.checksum;
+			}
+			long elapsed = System.nanoTime() - start;
+			long total = (long) check.decisions * repeat;
+			System.out.println("Replayed " + total + " decisions in " + (elapsed / 1000000L) + "ms ("
+					+ (total > 0 ? elapsed / total : 0) + "ns each), checksum " + Long.toHexString(checksum));
+			System.out.println(check.mismatches == 0 ? "All decisions match" : check.mismatches + " decisions differ ("
+					+ check.maskMismatches + " with a different side mask, " + check.unreplayed + " not replayable)");
+			System.exit(check.mismatches == 0 ? 0 : 1);
+		} catch (IOException e) {
+			System.err.println("Unable to replay trace " + args[0] + " - " + e);
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * One replay of a trace.
+	 */
+	private static class Pass {
+		private final boolean report;
+		private final HeadlessSession session = new HeadlessSession();
+		private final RecordedCube cube = new RecordedCube();
+
+		// Decisions made by the tick's placement update, rerun once the tick's cube is known
+		private int[] deferred = new int[16 * 6];
+		private long[] deferredPositions = new long[16];
+		private int deferredCount = 0;
+
+		/** Has the session made a decision for the last KEY or MOUSE record that is yet to be compared? */
+		private boolean pending = false;
+
+		// Results
+		int ticks, keys, mice, decisions;
+		int mismatches, maskMismatches, unreplayed;
+		long checksum;
+
+		Pass(boolean report) {
+			this.report = report;
+			session.setBlocks(cube);
+		}
+
+		/**
+		 * @param trace is the whole trace file
+		 * @throws IOException if the trace is corrupt
+		 */
+		void replay(byte[] trace) throws IOException {
+			PlaceTrace.Reader reader = new PlaceTrace.Reader(new DataInputStream(new ByteArrayInputStream(trace)));
+			Config config = Config.getInstance();
+			config.mouseThreshold = reader.mouseThreshold;
+			config.mouseWobble = reader.mouseWobble;
+			int type;
+			while ((type = reader.next()) >= 0) {
+				switch (type) {
+				case PlaceTrace.TICK:
+					ticks++;
+					tick(reader);
+					break;
+				case PlaceTrace.KEY:
+					keys++;
+					key(reader.action);
+					break;
+				case PlaceTrace.MOUSE:
+					mice++;
+					session.clearDecisions();
+					cube.clearOutsideReads();
+					session.mouseShiftPlace(null, null, reader.dx, reader.dy);
+					pending = (session.getDecisionCount() > 0);
+					break;
+				case PlaceTrace.DECISION:
+					decisions++;
+					decision(reader);
+					break;
+				}
+			}
+		}
+
+		/** Set the session as recorded at the end of a tick, then rerun the tick's own decisions */
+		private void tick(PlaceTrace.Reader reader) {
+			pending = false;
+			boolean enabled = (reader.flags & PlaceTrace.FLAG_ENABLED) != 0;
+			cube.set(reader, enabled);
+			session.blocksChanged();
+			session.setView(reader.yaw, reader.pitch, false);
+			for (int d = 0; d < deferredCount; d++) {
+				int i = d * 6;
+				session.setPlacement(true, deferredPositions[d], deferred[i + 1], false);
+				session.clearDecisions();
+				cube.clearOutsideReads();
+				switch (deferred[i]) {
+				case PlaceTrace.DECIDE_DEFAULT:
+					session.setDefaultPlace(null, null, deferred[i + 1]);
+					break;
+				case PlaceTrace.DECIDE_ADJUST:
+					session.adjustPlace(null, null, false, deferred[i + 2] == 0);
+					break;
+				case PlaceTrace.DECIDE_ROTATE:
+					session.rotatePlace(null, null, deferred[i + 2]);
+					break;
+				}
+				compare(deferred[i], deferredPositions[d], deferred[i + 1], deferred[i + 2], deferred[i + 3], deferred[i + 4]);
+			}
+			deferredCount = 0;
+			session.setPlacement(enabled, reader.placePosition, reader.placeSide, (reader.flags & PlaceTrace.FLAG_REPLACEABLE) != 0);
+		}
+
+		/** Replay a key control action as the {@link KeyBind} does */
+		private void key(int action) {
+			session.clearDecisions();
+			cube.clearOutsideReads();
+			switch (action) {
+			case KeyBind.KEY_FORWARD:
+				session.adjustPlace(null, null, false, true);
+				break;
+			case KeyBind.KEY_BACKWARD:
+				session.adjustPlace(null, null, false, false);
+				break;
+			case KeyBind.KEY_ROTVC:
+			case KeyBind.KEY_ROTVA:
+			case KeyBind.KEY_ROTHC:
+			case KeyBind.KEY_ROTHA:
+				session.rotatePlace(null, null, action);
+				break;
+			}
+			pending = (session.getDecisionCount() > 0);
+		}
+
+		/** Compare a recorded decision with the replayed one, or defer it if it was made by the tick */
+		private void decision(PlaceTrace.Reader reader) {
+			if (pending) {
+				pending = false;
+				compare(reader.kind, reader.position, reader.side, reader.param, reader.mask, reader.result);
+				return;
+			}
+			if (deferredCount == deferredPositions.length) {
+				int[] grown = new int[deferred.length * 2];
+				System.arraycopy(deferred, 0, grown, 0, deferred.length);
+				deferred = grown;
+				long[] grownPositions = new long[deferredPositions.length * 2];
+				System.arraycopy(deferredPositions, 0, grownPositions, 0, deferredPositions.length);
+				deferredPositions = grownPositions;
+			}
+			int i = deferredCount * 6;
+			deferred[i] = reader.kind;
+			deferred[i + 1] = reader.side;
+			deferred[i + 2] = reader.param;
+			deferred[i + 3] = reader.mask;
+			deferred[i + 4] = reader.result;
+			deferredPositions[deferredCount++] = reader.position;
+		}
+
+		/** Compare the session's last decision with a recorded one */
+		private void compare(int kind, long position, int side, int param, int mask, int result) {
+			boolean replayed = (session.getDecisionCount() > 0 && session.getDecisionKind() == kind
+					&& session.getDecisionPosition() == position && session.getDecisionSide() == side);
+			int replayedResult = replayed ? session.getDecisionResult() : -2;
+			checksum = checksum * 31 + replayedResult;
+			if (replayed && replayedResult == result) return;
+			mismatches++;
+			if (!replayed) {
+				unreplayed++;
+			} else if (session.getDecisionMask() != mask) {
+				maskMismatches++;
+			}
+			if (report) {
+				System.out.println("Mismatch at decision " + decisions + " tick " + ticks + ": kind=" + kind
+						+ " position=" + Coordinate.format(position) + " side=" + side + " param=" + param
+						+ " mask=" + Integer.toBinaryString(mask) + " recorded=" + result
+						+ (replayed ? " replayed=" + replayedResult + " replayed mask="
+								+ Integer.toBinaryString(session.getDecisionMask()) : " not replayed")
+						+ (cube.getOutsideReads() > 0 ? " (read outside the recorded cube)" : ""));
+			}
+		}
+	}
+
+	/**
+	 * The 3x3x3 cube of blocks recorded with a tick as a {@link BlockSource}.
+	 * Blocks outside the cube, or in any cube while place mode was off, read as air and are counted.
+	 */
+	private static class RecordedCube implements BlockSource {
+		private final int[] ids = new int[PlaceTrace.CELLS];
+		private final int[] meta = new int[PlaceTrace.CELLS];
+		private final boolean[] replaceable = new boolean[PlaceTrace.CELLS];
+		private int centreX, centreY, centreZ;
+		private boolean valid = false;
+		private int outsideReads = 0;
+
+		/** Copy the cube of a TICK record, if it has one */
+		void set(PlaceTrace.Reader reader, boolean recorded) {
+			valid = recorded;
+			if (!recorded) return;
+			centreX = Coordinate.unpackX(reader.placePosition);
+			centreY = Coordinate.unpackY(reader.placePosition);
+			centreZ = Coordinate.unpackZ(reader.placePosition);
+			System.arraycopy(reader.ids, 0, ids, 0, PlaceTrace.CELLS);
+			System.arraycopy(reader.meta, 0, meta, 0, PlaceTrace.CELLS);
+			System.arraycopy(reader.replaceable, 0, replaceable, 0, PlaceTrace.CELLS);
+		}
+
+		void clearOutsideReads() {
+			outsideReads = 0;
+		}
+
+		int getOutsideReads() {
+			return outsideReads;
+		}
+
+		@Override
+		public int getBlockId(int x, int y, int z) {
+			int cell = cellIndex(x, y, z);
+			return (cell < 0) ? 0 : ids[cell];
+		}
+
+		@Override
+		public int getBlockMetadata(int x, int y, int z) {
+			int cell = cellIndex(x, y, z);
+			return (cell < 0) ? 0 : meta[cell];
+		}
+
+		@Override
+		public boolean isReplaceable(int x, int y, int z) {
+			int cell = cellIndex(x, y, z);
+			return (cell < 0) ? false : replaceable[cell];
+		}
+
+		/** @return the cell index in the recorded order (as the {@link BlockSnapshot}) or -1 if not recorded */
+		private int cellIndex(int x, int y, int z) {
+			int dx = x - centreX + 1, dy = y - centreY + 1, dz = z - centreZ + 1;
+			if (!valid || dx < 0 || dx > 2 || dy < 0 || dy > 2 || dz < 0 || dz > 2) {
+				outsideReads++;
+				return -1;
+			}
+			return (dy * BlockSnapshot.SIZE + dz) * BlockSnapshot.SIZE + dx;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import net.minecraft.util.Facing;
+
+import org.junit.Test;
+
+/**
+ * Packed coordinate round trips, with the sign of each field checked at the edges of its
+ * 26, 12 and 26 bits.
+ *
+ * @author MudRaker
+ */
+public class CoordinateTest {
+
+	private static final int XZ_MIN = -(1 << 25), XZ_MAX = (1 << 25) - 1;
+	private static final int Y_MIN = -(1 << 11), Y_MAX = (1 << 11) - 1;
+
+	private static final int[] XZ = new int[] {XZ_MIN, XZ_MIN + 1, -30000000, -65536, -1, 0, 1, 65535, 30000000, XZ_MAX - 1, XZ_MAX};
+	private static final int[] Y = new int[] {Y_MIN, Y_MIN + 1, -64, -1, 0, 1, 255, 256, Y_MAX - 1, Y_MAX};
+
+	@Test
+	public void everyEdgeRoundTrips() {
+		for (int x : XZ) {
+			for (int y : Y) {
+				for (int z : XZ) {
+					long packed = Coordinate.pack(x, y, z);
+					assertEquals(x, Coordinate.unpackX(packed));
+					assertEquals(y, Coordinate.unpackY(packed));
+					assertEquals(z, Coordinate.unpackZ(packed));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void fieldsDoNotBleedIntoEachOther() {
+		Set<Long> packed = new HashSet<Long>();
+		for (int x : XZ) {
+			for (int y : Y) {
+				for (int z : XZ) {
+					assertTrue(Coordinate.format(Coordinate.pack(x, y, z)), packed.add(Coordinate.pack(x, y, z)));
+				}
+			}
+		}
+		// A negative field below a positive one must not borrow from it
+		assertEquals(5, Coordinate.unpackX(Coordinate.pack(5, -1, -1)));
+		assertEquals(7, Coordinate.unpackY(Coordinate.pack(-1, 7, -1)));
+	}
+
+	@Test
+	public void adjacentStepsAcrossZero() {
+		assertEquals(Coordinate.pack(0, 64, 0), Coordinate.adjacent(Coordinate.pack(-1, 64, 0), Const.SIDE_EAST));
+		assertEquals(Coordinate.pack(-1, 64, 0), Coordinate.adjacent(Coordinate.pack(0, 64, 0), Const.SIDE_WEST));
+		assertEquals(Coordinate.pack(0, -1, 0), Coordinate.adjacent(Coordinate.pack(0, 0, 0), Const.SIDE_BOTTOM));
+		assertEquals(Coordinate.pack(7, 64, -1), Coordinate.adjacent(Coordinate.pack(7, 64, 0), Const.SIDE_NORTH));
+		assertEquals(Coordinate.pack(7, 64, 0), Coordinate.adjacent(Coordinate.pack(7, 64, -1), Const.SIDE_SOUTH));
+	}
+
+	@Test
+	public void adjacentAndBackIsTheSamePosition() {
+		for (int x : XZ) {
+			if (x == XZ_MIN || x == XZ_MAX) continue; // a step would leave the packed range
+			for (int y : new int[] {Y_MIN + 1, -1, 0, Y_MAX - 1}) {
+				for (int side = 0; side < 6; side++) {
+					long packed = Coordinate.pack(x, y, ~x);
+					long there = Coordinate.adjacent(packed, side);
+					assertEquals(packed, Coordinate.adjacent(there, Facing.oppositeSide[side]));
+					assertEquals(new Coordinate(x, y, ~x).adjacentOnSide(side).pack(), there);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void adapterMatchesThePackedForm() {
+		Coordinate c = new Coordinate(Coordinate.pack(-30000000, -5, 29999999));
+		assertEquals(-30000000, c.x);
+		assertEquals(-5, c.y);
+		assertEquals(29999999, c.z);
+		assertEquals(Coordinate.pack(-30000000, -5, 29999999), c.pack());
+		assertEquals("(-30000000,-5,29999999)", Coordinate.format(c.pack()));
+	}
+}
\ No newline at end of file
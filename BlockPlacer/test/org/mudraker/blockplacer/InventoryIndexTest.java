@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertEquals;
+
+import net.minecraft.entity.player.InventoryPlayer;
+import net.minecraft.item.ItemStack;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link InventoryIndex} slot masks by item and damage, and how they follow changes to the
+ * inventory. Selecting and restocking talk to the server so are not covered here.
+ *
+ * @author MudRaker
+ */
+public class InventoryIndexTest {
+
+	// Vanilla item IDs used by the tests
+	private static final int STONE = 1;		// no subtypes
+	private static final int WOOL = 35;		// subtypes by damage
+	private static final int ITEMS = 256;	// first of the vanilla items, some with subtypes - all held at damage 0
+
+	private InventoryIndex index;
+	private InventoryPlayer inventory;
+
+	@Before
+	public void setUp() {
+		index = InventoryIndex.getInstance();
+		inventory = new InventoryPlayer(null);
+		index.tick(inventory); // forget slots indexed by earlier tests
+	}
+
+	@Test
+	public void findsEverySlotHoldingAnItem() {
+		inventory.mainInventory[0] = new ItemStack(STONE, 64, 0);
+		inventory.mainInventory[20] = new ItemStack(STONE, 3, 0);
+		index.tick(inventory);
+		assertEquals((1L << 0) | (1L << 20), index.getSlots(STONE, 0));
+		assertEquals(0L, index.getSlots(WOOL, 0));
+	}
+
+	@Test
+	public void damageIsIgnoredWithoutSubtypes() {
+		inventory.mainInventory[5] = new ItemStack(STONE, 1, 0);
+		index.tick(inventory);
+		assertEquals(1L << 5, index.getSlots(STONE, 7));
+	}
+
+	@Test
+	public void subtypesAreKeptApart() {
+		inventory.mainInventory[3] = new ItemStack(WOOL, 1, 14);
+		inventory.mainInventory[4] = new ItemStack(WOOL, 1, 0);
+		index.tick(inventory);
+		assertEquals(1L << 3, index.getSlots(WOOL, 14));
+		assertEquals(1L << 4, index.getSlots(WOOL, 0));
+		assertEquals(0L, index.getSlots(WOOL, 1));
+	}
+
+	@Test
+	public void changedSlotsAreReindexed() {
+		ItemStack stack = new ItemStack(STONE, 1, 0);
+		inventory.mainInventory[0] = stack;
+		inventory.mainInventory[1] = new ItemStack(STONE, 1, 0);
+		index.tick(inventory);
+
+		stack.stackSize = 0; // used up in place
+		inventory.mainInventory[1] = new ItemStack(WOOL, 1, 2);
+		index.tick(inventory);
+		assertEquals(0L, index.getSlots(STONE, 0));
+		assertEquals(1L << 1, index.getSlots(WOOL, 2));
+	}
+
+	@Test
+	public void fullInventory() {
+		for (int slot = 0; slot < InventoryIndex.SLOTS; slot++) {
+			inventory.mainInventory[slot] = new ItemStack(ITEMS + slot, 1, 0);
+		}
+		index.tick(inventory);
+		for (int slot = 0; slot < InventoryIndex.SLOTS; slot++) {
+			assertEquals(1L << slot, index.getSlots(ITEMS + slot, 0));
+		}
+
+		for (int slot = 0; slot < InventoryIndex.SLOTS; slot += 2) {
+			inventory.mainInventory[slot] = null;
+		}
+		index.tick(inventory);
+		for (int slot = 0; slot < InventoryIndex.SLOTS; slot++) {
+			assertEquals((slot & 1) == 0 ? 0L : 1L << slot, index.getSlots(ITEMS + slot, 0));
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.Facing;
+import net.minecraft.world.World;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link Const#SIDE_MIRROR} table symmetry, the {@link MirrorPlan} images of a placement across
+ * each combination of axes, and the checks the filter drops images on.
+ *
+ * @author MudRaker
+ */
+public class MirrorPlanTest {
+
+	/** Mirror origin block */
+	private static final int OX = 10, OY = 64, OZ = -10;
+	private static final long ORIGIN = Coordinate.pack(OX, OY, OZ);
+
+	private final long[] plan = new long[MirrorPlan.MAX_IMAGES * MirrorPlan.STRIDE];
+	private final TestBlocks blocks = new TestBlocks();
+	private HeadlessSession session;
+
+	@Before
+	public void setUp() {
+		session = new HeadlessSession();
+		session.setBlocks(blocks);
+	}
+
+	@Test
+	public void sideMirrorSwapsOnlyTheSidesOnItsAxis() {
+		int[] swapped = new int[] {Const.SIDE_WEST, Const.SIDE_BOTTOM, Const.SIDE_NORTH}; // one side on each axis
+		int[] axis = new int[] {Const.MIRROR_X, Const.MIRROR_Y, Const.MIRROR_Z};
+		for (int a = 0; a < 3; a++) {
+			for (int side = 0; side < 6; side++) {
+				int mirrored = Const.SIDE_MIRROR[axis[a]][side];
+				boolean onAxis = (side == swapped[a] || side == Facing.oppositeSide[swapped[a]]);
+				assertEquals("axis " + a + " side " + side, onAxis ? Facing.oppositeSide[side] : side, mirrored);
+				assertEquals(side, Const.SIDE_MIRROR[axis[a]][mirrored]);
+			}
+		}
+	}
+
+	@Test
+	public void allAxesGiveSevenReflections() {
+		long placed = Coordinate.pack(OX + 3, OY + 2, OZ - 5);
+		int count = MirrorPlan.build(placed, Const.SIDE_TOP, Config.MirrorMode.XYZ.ordinal(), ORIGIN, plan);
+		assertEquals(MirrorPlan.MAX_IMAGES, count);
+		Set<Long> images = new HashSet<Long>();
+		for (int n = 0; n < count; n++) {
+			long image = image(n);
+			int dx = Coordinate.unpackX(image) - OX, dy = Coordinate.unpackY(image) - OY, dz = Coordinate.unpackZ(image) - OZ;
+			assertTrue(Math.abs(dx) == 3 && Math.abs(dy) == 2 && Math.abs(dz) == 5);
+			assertTrue(images.add(image));
+		}
+		assertTrue(!images.contains(placed));
+	}
+
+	@Test
+	public void sideIsMirrored() {
+		long placed = Coordinate.pack(OX + 3, OY, OZ);
+		int count = MirrorPlan.build(placed, Const.SIDE_EAST, Config.MirrorMode.X.ordinal(), ORIGIN, plan);
+		assertEquals(1, count);
+		assertEquals(Coordinate.pack(OX - 3, OY, OZ), image(0));
+		assertEquals(Const.SIDE_WEST, (int) plan[1]);
+		assertEquals(Coordinate.pack(OX - 2, OY, OZ), plan[0]);
+	}
+
+	@Test
+	public void placementOnAPlaneSkipsCoincidentImages() {
+		long placed = Coordinate.pack(OX, OY + 1, OZ + 1);
+		assertEquals(3, MirrorPlan.build(placed, Const.SIDE_TOP, Config.MirrorMode.XYZ.ordinal(), ORIGIN, plan));
+		assertEquals(0, MirrorPlan.build(ORIGIN, Const.SIDE_TOP, Config.MirrorMode.XYZ.ordinal(), ORIGIN, plan));
+	}
+
+	@Test
+	public void filterNeedsABlockToPlaceAgainst() {
+		long placed = Coordinate.pack(OX + 3, OY, OZ);
+		assertEquals(1, MirrorPlan.build(placed, Const.SIDE_EAST, Config.MirrorMode.X.ordinal(), ORIGIN, plan));
+		assertEquals(0, filter(10.0D));
+
+		blocks.set(Coordinate.pack(OX - 2, OY, OZ), TestBlocks.STONE);
+		MirrorPlan.build(placed, Const.SIDE_EAST, Config.MirrorMode.X.ordinal(), ORIGIN, plan);
+		assertEquals(1, filter(10.0D));
+		assertEquals(0, filter(2.0D)); // out of reach
+
+		blocks.set(Coordinate.pack(OX - 3, OY, OZ), TestBlocks.STONE);
+		assertEquals(0, filter(10.0D)); // occupied
+	}
+
+	@Test
+	public void filterAppliesTheSideCheck() {
+		final long against = Coordinate.pack(OX - 2, OY, OZ);
+		blocks.set(against, TestBlocks.STONE);
+		session = new HeadlessSession() {
+			@Override
+			protected boolean canPlaceOnSide(World theWorld, EntityPlayer entityPlayer, long pos, int side) {
+				return pos != against && super.canPlaceOnSide(theWorld, entityPlayer, pos, side);
+			}
+		};
+		session.setBlocks(blocks);
+		MirrorPlan.build(Coordinate.pack(OX + 3, OY, OZ), Const.SIDE_EAST, Config.MirrorMode.X.ordinal(), ORIGIN, plan);
+		assertEquals(0, filter(10.0D));
+	}
+
+	@Test
+	public void filterNeverPlacesAgainstABlockThatCanActivate() {
+		blocks.set(Coordinate.pack(OX - 2, OY, OZ), TestBlocks.CHEST);
+		MirrorPlan.build(Coordinate.pack(OX + 3, OY, OZ), Const.SIDE_EAST, Config.MirrorMode.X.ordinal(), ORIGIN, plan);
+		assertEquals(0, filter(10.0D));
+	}
+
+	/** Filter a plan of one image, measuring reach from the centre of the origin block */
+	private int filter(double reach) {
+		return MirrorPlan.filter(plan, 1, blocks, session, null, null, OX + 0.5D, OY + 0.5D, OZ + 0.5D, reach);
+	}
+
+	/** @return the packed position image n places its block at */
+	private long image(int n) {
+		return Coordinate.adjacent(plan[n * MirrorPlan.STRIDE], (int) plan[n * MirrorPlan.STRIDE + 1]);
+	}
+}
\ No newline at end of file
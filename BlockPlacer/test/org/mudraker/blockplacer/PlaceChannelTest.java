@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.logging.Logger;
+
+import net.minecraft.network.packet.Packet250CustomPayload;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mudraker.Log;
+
+/**
+ * {@link PlaceChannel} packet layout, and the malformed packets the handler must drop.
+ *
+ * @author MudRaker
+ */
+public class PlaceChannelTest {
+
+	/** Acknowledgement handler that keeps the last acknowledgement */
+	private static class LastAck implements PlaceChannel.AckHandler {
+		int calls, sequence, count;
+		long placedMask;
+
+		@Override
+		public void onAck(int ackSequence, int ackCount, long ackPlacedMask) {
+			calls++;
+			sequence = ackSequence;
+			count = ackCount;
+			placedMask = ackPlacedMask;
+		}
+	}
+
+	private LastAck lastAck;
+
+	@BeforeClass
+	public static void initLog() {
+		Log.init(Logger.getLogger(ModInfo.ID));
+	}
+
+	@Before
+	public void setUp() {
+		lastAck = new LastAck();
+		PlaceChannel.setAckHandler(lastAck);
+	}
+
+	@After
+	public void tearDown() {
+		PlaceChannel.setAckHandler(null);
+	}
+
+	@Test
+	public void ackRoundTrip() {
+		receive(PlaceChannel.ackPacket(1234567, PlaceChannel.MAX_BATCH, 0x8000000000000001L));
+		assertEquals(1, lastAck.calls);
+		assertEquals(1234567, lastAck.sequence);
+		assertEquals(PlaceChannel.MAX_BATCH, lastAck.count);
+		assertEquals(0x8000000000000001L, lastAck.placedMask);
+	}
+
+	@Test
+	public void batchLayout() throws IOException {
+		long[] positions = new long[] {Coordinate.pack(1, 64, -1), Coordinate.pack(-30000, 255, 30000)};
+		byte[] sides = new byte[] {Const.SIDE_TOP, Const.SIDE_WEST};
+		byte[] hits = new byte[] {8, 16, 0, 0, 4, 15};
+		Packet250CustomPayload packet = PlaceChannel.batchPacket(3, positions, sides, hits, 2);
+		assertEquals(PlaceChannel.CHANNEL, packet.channel);
+		assertEquals(7 + 2 * 12, packet.data.length);
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet.data));
+		in.readByte(); // protocol
+		assertEquals(0, in.readByte()); // batch
+		assertEquals(3, in.readInt());
+		assertEquals(2, in.readUnsignedByte());
+		byte[] hit = new byte[3];
+		for (int n = 0; n < 2; n++) {
+			assertEquals(positions[n], in.readLong());
+			assertEquals(sides[n], in.readByte());
+			in.readFully(hit);
+			assertArrayEquals(new byte[] {hits[n * 3], hits[n * 3 + 1], hits[n * 3 + 2]}, hit);
+		}
+	}
+
+	@Test
+	public void batchIgnoredFromClient() {
+		Packet250CustomPayload packet = PlaceChannel.batchPacket(1, new long[] {0L}, new byte[] {0}, new byte[3], 1);
+		receive(packet); // no server player - nothing to queue on
+		assertEquals(0, lastAck.calls);
+	}
+
+	@Test
+	public void unknownProtocolIgnored() {
+		Packet250CustomPayload packet = PlaceChannel.ackPacket(1, 1, 1L);
+		packet.data[0]++;
+		receive(packet);
+		assertEquals(0, lastAck.calls);
+	}
+
+	@Test
+	public void badCountIgnored() {
+		receive(PlaceChannel.ackPacket(1, 0, 1L));
+		receive(PlaceChannel.ackPacket(1, PlaceChannel.MAX_BATCH + 1, 1L));
+		assertEquals(0, lastAck.calls);
+	}
+
+	@Test
+	public void truncatedIgnored() {
+		Packet250CustomPayload packet = PlaceChannel.ackPacket(1, 1, 1L);
+		byte[] data = new byte[packet.data.length - 1];
+		System.arraycopy(packet.data, 0, data, 0, data.length);
+		receive(new Packet250CustomPayload(PlaceChannel.CHANNEL, data));
+		assertEquals(0, lastAck.calls);
+	}
+
+	@Test
+	public void otherChannelIgnored() {
+		Packet250CustomPayload packet = PlaceChannel.ackPacket(1, 1, 1L);
+		receive(new Packet250CustomPayload("MR|Other", packet.data));
+		assertEquals(0, lastAck.calls);
+	}
+
+	/** Pass a packet to a new channel handler as if received from the network */
+	private void receive(Packet250CustomPayload packet) {
+		new PlaceChannel().onPacketData(null, packet, null);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.logging.Logger;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mudraker.Log;
+
+/**
+ * Sustained placement rates under the {@link PlaceEngine} pacing with the default interval and
+ * cap, simulating how the server answers each kind of placement.
+ *
+ * @author MudRaker
+ */
+public class PlaceEngineTest {
+
+	/** Ticks simulated */
+	private static final int TICKS = 400;
+
+	/** Ticks for the server to answer a placement it answers */
+	private static final int LATENCY = 10;
+
+	private final Config config = Config.getInstance();
+	private final PlacementLedger ledger = PlacementLedger.getInstance();
+
+	// Placements the server has still to answer, oldest first
+	private final long[] answer = new long[TICKS * PlacementLedger.CAPACITY];
+	private final long[] answerTick = new long[answer.length];
+	private int answered, answerCount;
+
+	/** Most placements issued in one tick */
+	private int largestBurst;
+
+	@BeforeClass
+	public static void initLog() {
+		Log.init(Logger.getLogger(ModInfo.ID));
+	}
+
+	@Before
+	public void setUp() {
+		ledger.clear();
+		answered = answerCount = largestBurst = 0;
+		assertEquals(4, config.placeHoldInterval);
+		assertEquals(4, config.placeMaxPending);
+	}
+
+	@Test
+	public void vanillaHoldKeepsUpWithRepeatClicks() {
+		// In the client world at once, and the server only answers a vanilla placement if it reverts it
+		int issued = simulate(1, true, false, false);
+		assertEquals(TICKS / config.placeHoldInterval, issued);
+	}
+
+	@Test
+	public void batchedHoldIsPacedByTheInterval() {
+		int issued = simulate(1, true, true, true);
+		assertEquals(TICKS / config.placeHoldInterval, issued);
+	}
+
+	@Test
+	public void placementsNotYetShownAreCapped() {
+		// Placed ahead of the server, which never shows them
+		assertEquals(config.placeMaxPending, simulate(1, false, false, false));
+		assertEquals(config.placeMaxPending, ledger.getAwaitingCount());
+	}
+
+	@Test
+	public void placementsNotYetShownResumeWhenTheServerCatchesUp() {
+		int issued = simulate(1, false, false, true);
+		assertEquals(TICKS / config.placeHoldInterval, issued);
+	}
+
+	@Test
+	public void batchedShapeIsHeldToTheCapPerRoundTrip() {
+		int issued = simulate(Integer.MAX_VALUE, true, true, true);
+		assertTrue(issued >= (TICKS / LATENCY - 1) * config.placeMaxPending);
+		assertTrue(issued <= (TICKS / LATENCY + 1) * config.placeMaxPending);
+		assertEquals(config.placeMaxPending, largestBurst);
+	}
+
+	@Test
+	public void vanillaShapeIssuesABurstEachInterval() {
+		int issued = simulate(Integer.MAX_VALUE, true, false, false);
+		assertEquals(TICKS / config.placeHoldInterval * config.placeMaxPending, issued);
+		assertEquals(config.placeMaxPending, largestBurst);
+	}
+
+	/**
+	 * Issue placements each tick as far as {@link PlaceEngine#getAllowance} lets them.
+	 * @param burst is the most placements wanted each tick - 1 for hold-to-place, more for a shape
+	 * @param inClientWorld is true if each placement appears in the client world at once
+	 * @param inBatch is true if each placement is sent in a bulk batch
+	 * @param answers is true if the server shows or acknowledges each placement after {@link #LATENCY} ticks
+	 * @return the number of placements issued
+	 */
+	private int simulate(int burst, boolean inClientWorld, boolean inBatch, boolean answers) {
+		long lastIssueTick = Long.MIN_VALUE / 2;
+		int issued = 0;
+		for (long tick = 0; tick < TICKS; tick++) {
+			while (answered < answerCount && tick - answerTick[answered] >= LATENCY) {
+				ledger.acknowledge(answer[answered++], true);
+			}
+			int allowance = Math.min(burst, PlaceEngine.getAllowance(tick, lastIssueTick));
+			if (allowance == 0) continue;
+			lastIssueTick = tick;
+			for (int n = 0; n < allowance; n++) {
+				long placed = Coordinate.pack(issued, 64, 0);
+				ledger.record(placed, Coordinate.pack(issued - 1, 64, 0), Const.SIDE_EAST, TestBlocks.STONE,
+						inClientWorld, inBatch, false, tick);
+				if (answers) {
+					answer[answerCount] = placed;
+					answerTick[answerCount++] = tick;
+				}
+				issued++;
+			}
+			largestBurst = Math.max(largestBurst, allowance);
+		}
+		return issued;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.logging.Logger;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mudraker.Log;
+
+/**
+ * {@link PlacementJournal} ring bookkeeping and how far an undo reaches back. Undo itself digs
+ * blocks through the player controller so is not covered here.
+ *
+ * @author MudRaker
+ */
+public class PlacementJournalTest {
+
+	private PlacementJournal journal;
+
+	@BeforeClass
+	public static void initLog() {
+		Log.init(Logger.getLogger(ModInfo.ID));
+	}
+
+	@Before
+	public void setUp() {
+		journal = PlacementJournal.getInstance();
+		journal.clear();
+	}
+
+	@Test
+	public void recordCounts() {
+		record(3);
+		assertEquals(3, journal.getCount());
+		assertEquals(0, journal.getUndoRemaining());
+	}
+
+	@Test
+	public void oldestEntriesAreOverwritten() {
+		record(PlacementJournal.CAPACITY + 10);
+		assertEquals(PlacementJournal.CAPACITY, journal.getCount());
+		assertEquals(PlacementJournal.CAPACITY, journal.undo(PlacementJournal.CAPACITY * 2));
+	}
+
+	@Test
+	public void undoIsLimitedToTheJournal() {
+		record(3);
+		assertEquals(3, journal.undo(5));
+		assertEquals(3, journal.undo(1));
+	}
+
+	@Test
+	public void undoAddsToAnUndoInProgress() {
+		record(10);
+		assertEquals(2, journal.undo(2));
+		assertEquals(5, journal.undo(3));
+		assertEquals(5, journal.undo(-4));
+		assertEquals(5, journal.getUndoRemaining());
+	}
+
+	@Test
+	public void cancelUndoKeepsTheEntries() {
+		record(4);
+		journal.undo(2);
+		journal.cancelUndo();
+		assertEquals(0, journal.getUndoRemaining());
+		assertEquals(4, journal.getCount());
+	}
+
+	@Test
+	public void clearForgetsEverything() {
+		record(4);
+		journal.undo(2);
+		journal.clear();
+		assertEquals(0, journal.getCount());
+		assertEquals(0, journal.getUndoRemaining());
+		assertEquals(0, journal.undo(1));
+	}
+
+	/** Journal a run of stone placed eastwards */
+	private void record(int placements) {
+		for (int n = 0; n < placements; n++) {
+			journal.record(Coordinate.pack(n, 64, 0), Const.SIDE_EAST, TestBlocks.STONE, 0);
+		}
+	}
+}
\ No newline at end of file
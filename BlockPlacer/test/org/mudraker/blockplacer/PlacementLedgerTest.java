@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.logging.Logger;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mudraker.Log;
+
+/**
+ * {@link PlacementLedger} confirmation and roll back from server acknowledgements. The entries are
+ * recorded as shape placements so that rolling back never moves the local player's placement.
+ *
+ * @author MudRaker
+ */
+public class PlacementLedgerTest {
+
+	private static final int Y = 70;
+
+	private final PlacementLedger ledger = PlacementLedger.getInstance();
+
+	@BeforeClass
+	public static void initLog() {
+		Log.init(Logger.getLogger(ModInfo.ID));
+	}
+
+	@Before
+	public void clearLedger() {
+		ledger.clear();
+	}
+
+	@Test
+	public void acknowledgedEntriesAreConfirmedInAnyOrder() {
+		long confirmed = ledger.getConfirmedCount();
+		record(at(1), at(0));
+		record(at(2), at(1));
+		record(at(3), at(2));
+		ledger.acknowledge(at(2), true);
+		assertEquals(2, ledger.getPendingCount());
+		assertFalse(ledger.isPending(at(2)));
+		assertTrue(ledger.isPending(at(1)) && ledger.isPending(at(3)));
+		assertEquals(confirmed + 1, ledger.getConfirmedCount());
+
+		// The gap is closed so the other entries still resolve
+		ledger.acknowledge(at(3), true);
+		ledger.acknowledge(at(1), true);
+		assertEquals(0, ledger.getPendingCount());
+	}
+
+	@Test
+	public void unknownAcknowledgementsAreIgnored() {
+		record(at(1), at(0));
+		ledger.acknowledge(at(9), false);
+		assertEquals(1, ledger.getPendingCount());
+	}
+
+	@Test
+	public void rejectionDiscardsThePlacementsBuiltOnIt() {
+		long rolledBack = ledger.getRolledBackCount();
+		record(at(1), at(0));		// older - kept
+		record(at(2), at(1));		// rejected
+		record(at(3), at(2));		// against the rejected block
+		record(side(1), side(0));	// elsewhere - kept
+		record(at(4), at(3));		// against a discarded block
+		record(above(2), at(2));	// also against the rejected block
+		ledger.acknowledge(at(2), false);
+
+		assertEquals(2, ledger.getPendingCount());
+		assertTrue(ledger.isPending(at(1)));
+		assertTrue(ledger.isPending(side(1)));
+		assertFalse(ledger.isPending(at(2)) || ledger.isPending(at(3)) || ledger.isPending(at(4)) || ledger.isPending(above(2)));
+		assertEquals(rolledBack + 4, ledger.getRolledBackCount());
+	}
+
+	@Test
+	public void keptEntriesStayLinkedAfterCompaction() {
+		record(at(1), at(0));
+		record(side(1), side(0));
+		record(at(2), at(1));
+		record(side(2), side(1));
+		record(side(3), side(2));
+		ledger.acknowledge(at(1), false); // removes at(1) and at(2), moving the side entries down
+
+		ledger.acknowledge(side(2), false);
+		assertEquals(1, ledger.getPendingCount());
+		assertTrue(ledger.isPending(side(1)));
+	}
+
+	@Test
+	public void rollBackCompactsAcrossTheEndOfTheRing() {
+		// Move the head most of the way round the ring first
+		for (int n = 0; n < PlacementLedger.CAPACITY - 3; n++) {
+			record(far(n), far(n - 1));
+			ledger.acknowledge(far(n), true);
+		}
+		for (int n = 1; n <= 8; n++) {
+			record(at(n), at(n - 1));
+			record(side(n), side(n - 1));
+		}
+		ledger.acknowledge(at(5), false);
+
+		assertEquals(12, ledger.getPendingCount());
+		for (int n = 1; n <= 8; n++) {
+			assertEquals("at " + n, n < 5, ledger.isPending(at(n)));
+			assertTrue("side " + n, ledger.isPending(side(n)));
+		}
+
+		// Each kept entry was moved along with the block it was placed against
+		ledger.acknowledge(side(7), false);
+		assertEquals(10, ledger.getPendingCount());
+		ledger.acknowledge(at(2), false);
+		assertEquals(7, ledger.getPendingCount());
+		assertTrue(ledger.isPending(at(1)));
+	}
+
+	@Test
+	public void fullLedgerAssumesTheOldestConfirmed() {
+		for (int n = 0; n <= PlacementLedger.CAPACITY; n++) {
+			record(far(n), far(n - 1));
+		}
+		assertEquals(PlacementLedger.CAPACITY, ledger.getPendingCount());
+		assertFalse(ledger.isPending(far(0)));
+		assertTrue(ledger.isPending(far(PlacementLedger.CAPACITY)));
+	}
+
+	@Test
+	public void clearForgetsWithoutRollingBack() {
+		long rolledBack = ledger.getRolledBackCount();
+		record(at(1), at(0));
+		ledger.clear();
+		ledger.acknowledge(at(1), false);
+		assertEquals(0, ledger.getPendingCount());
+		assertEquals(rolledBack, ledger.getRolledBackCount());
+	}
+
+	/** Record a shape placement of stone, not yet in the client world */
+	private void record(long placed, long from) {
+		ledger.record(placed, from, Const.SIDE_EAST, TestBlocks.STONE, false, false, false, 0L);
+	}
+
+	/** A run eastwards */
+	private static long at(int n) {
+		return Coordinate.pack(n, Y, 0);
+	}
+
+	/** A separate run eastwards */
+	private static long side(int n) {
+		return Coordinate.pack(n, Y, 10);
+	}
+
+	private static long above(int n) {
+		return Coordinate.pack(n, Y + 1, 0);
+	}
+
+	/** A run well away from the others */
+	private static long far(int n) {
+		return Coordinate.pack(n, Y, -100);
+	}
+}
\ No newline at end of file
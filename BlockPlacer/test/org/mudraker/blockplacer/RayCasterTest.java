@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@link RayCaster} stepping along the axes, across zero and on random rays, where the voxels and
+ * entry sides are checked against a ray marched in small steps.
+ *
+ * @author MudRaker
+ */
+public class RayCasterTest {
+
+	private static final double REACH = 5.0D;
+
+	@Test
+	public void entersThroughTheNearSideOnEachAxis() {
+		assertEquals(Const.SIDE_WEST, cast(0.5D, 64.5D, 0.5D, 1, 0, 0, Coordinate.pack(3, 64, 0)));
+		assertEquals(Const.SIDE_EAST, cast(0.5D, 64.5D, 0.5D, -1, 0, 0, Coordinate.pack(-3, 64, 0)));
+		assertEquals(Const.SIDE_BOTTOM, cast(0.5D, 64.5D, 0.5D, 0, 1, 0, Coordinate.pack(0, 66, 0)));
+		assertEquals(Const.SIDE_TOP, cast(0.5D, 64.5D, 0.5D, 0, -1, 0, Coordinate.pack(0, 62, 0)));
+		assertEquals(Const.SIDE_NORTH, cast(0.5D, 64.5D, 0.5D, 0, 0, 1, Coordinate.pack(0, 64, 3)));
+		assertEquals(Const.SIDE_SOUTH, cast(0.5D, 64.5D, 0.5D, 0, 0, -1, Coordinate.pack(0, 64, -3)));
+	}
+
+	@Test
+	public void floorsNegativeOrigins() {
+		// The eye is in block (-1,64,-1), so (-2,64,-1) is the first block to the west
+		assertEquals(Const.SIDE_EAST, cast(-0.5D, 64.5D, -0.5D, -1, 0, 0, Coordinate.pack(-2, 64, -1)));
+		assertEquals(-1, cast(-0.5D, 64.5D, -0.5D, -1, 0, 0, Coordinate.pack(-2, 64, 0)));
+		assertEquals(Const.SIDE_NORTH, cast(-0.5D, 64.5D, -0.5D, 0, 0, 1, Coordinate.pack(-1, 64, 0)));
+	}
+
+	@Test
+	public void stopsAtThePreviousHit() {
+		long placed = Coordinate.pack(4, 64, 0);
+		assertEquals(Const.SIDE_WEST, RayCaster.cast(0.5D, 64.5D, 0.5D, 1, 0, 0, REACH, placed, Coordinate.pack(5, 64, 0)));
+		assertEquals(-1, RayCaster.cast(0.5D, 64.5D, 0.5D, 1, 0, 0, REACH, placed, Coordinate.pack(2, 64, 0)));
+	}
+
+	@Test
+	public void stopsAtTheReach() {
+		long placed = Coordinate.pack(3, 64, 0); // near face 2.5 away
+		assertEquals(Const.SIDE_WEST, RayCaster.cast(0.5D, 64.5D, 0.5D, 1, 0, 0, 2.5D, placed, 0L));
+		assertEquals(-1, RayCaster.cast(0.5D, 64.5D, 0.5D, 1, 0, 0, 2.4D, placed, 0L));
+	}
+
+	@Test
+	public void followsTheLookOfAPlayerRotation() {
+		// Yaw 0 looks south (+Z), yaw 90 west (-X), pitch 90 straight down
+		assertEquals(Const.SIDE_NORTH, RayCaster.castToPlaced(0.5D, 65.62D, 0.5D, 0.0F, 0.0F, REACH, Coordinate.pack(0, 65, 2), 0L));
+		assertEquals(Const.SIDE_EAST, RayCaster.castToPlaced(0.5D, 65.62D, 0.5D, 90.0F, 0.0F, REACH, Coordinate.pack(-2, 65, 0), 0L));
+		assertEquals(Const.SIDE_TOP, RayCaster.castToPlaced(0.5D, 65.62D, 0.5D, 0.0F, 90.0F, REACH, Coordinate.pack(0, 64, 0), 0L));
+	}
+
+	@Test
+	public void randomRaysVisitTheSameVoxelsAsAMarchedRay() {
+		Random random = new Random(164);
+		long[] voxels = new long[16];
+		int[] sides = new int[16];
+		for (int ray = 0; ray < 2000; ray++) {
+			double x = random.nextDouble() * 8.0D - 4.0D, y = 64.0D + random.nextDouble(), z = random.nextDouble() * 8.0D - 4.0D;
+			double dx = random.nextGaussian(), dy = random.nextGaussian(), dz = random.nextGaussian();
+			double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+			dx /= length;
+			dy /= length;
+			dz /= length;
+			int count = march(x, y, z, dx, dy, dz, voxels, sides);
+			for (int n = 0; n < count; n++) {
+				assertEquals("ray " + ray + " voxel " + n, sides[n], RayCaster.cast(x, y, z, dx, dy, dz, REACH, voxels[n], 0L));
+				if (n > 0) {
+					assertEquals("ray " + ray + " voxel " + n, -1, RayCaster.cast(x, y, z, dx, dy, dz, REACH, voxels[n], voxels[n - 1]));
+				}
+			}
+		}
+	}
+
+	private static int cast(double x, double y, double z, double dx, double dy, double dz, long placed) {
+		return RayCaster.cast(x, y, z, dx, dy, dz, REACH, placed, 0L);
+	}
+
+	/**
+	 * March a ray in small steps, recording each voxel it enters within reach and the side it
+	 * enters through. Rays passing too close to a voxel edge to tell which side was first are cut short.
+	 * @return the number of voxels recorded
+	 */
+	private static int march(double x, double y, double z, double dx, double dy, double dz, long[] voxels, int[] sides) {
+		int bx = (int) Math.floor(x), by = (int) Math.floor(y), bz = (int) Math.floor(z);
+		int count = 0;
+		for (double t = 0.0D; t <= REACH - 0.01D && count < voxels.length; t += 0.0005D) {
+			int nx = (int) Math.floor(x + dx * t), ny = (int) Math.floor(y + dy * t), nz = (int) Math.floor(z + dz * t);
+			int changed = (nx != bx ? 1 : 0) + (ny != by ? 1 : 0) + (nz != bz ? 1 : 0);
+			if (changed == 0) continue;
+			if (changed > 1) break;
+			sides[count] = (nx != bx) ? (nx > bx ? Const.SIDE_WEST : Const.SIDE_EAST)
+					: (ny != by) ? (ny > by ? Const.SIDE_BOTTOM : Const.SIDE_TOP)
+					: (nz > bz ? Const.SIDE_NORTH : Const.SIDE_SOUTH);
+			voxels[count++] = Coordinate.pack(nx, ny, nz);
+			bx = nx;
+			by = ny;
+			bz = nz;
+		}
+		return count;
+	}
+}
\ No newline at end of file
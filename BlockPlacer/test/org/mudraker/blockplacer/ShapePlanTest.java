@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mudraker.Log;
+
+/**
+ * {@link ShapePlan} layouts, which must only ever place against the clicked block or an earlier
+ * placement, and the filter that drops the placements that cannot happen.
+ *
+ * @author MudRaker
+ */
+public class ShapePlanTest {
+
+	/** Block the shapes are placed against */
+	private static final int X = 100, Y = 64, Z = -200;
+	private static final long CLICKED = Coordinate.pack(X, Y, Z);
+
+	private TestBlocks blocks;
+	private HeadlessSession session;
+
+	@BeforeClass
+	public static void initLog() {
+		Log.init(Logger.getLogger(ModInfo.ID));
+	}
+
+	@Before
+	public void setUp() {
+		blocks = new TestBlocks().set(CLICKED, TestBlocks.STONE);
+		session = new HeadlessSession();
+		session.setBlocks(blocks);
+	}
+
+	@Test
+	public void lineRunsOutFromThePlaceSide() {
+		long[] plan = ShapePlan.build(Config.ShapeMode.LINE, 4, CLICKED, Const.SIDE_EAST, false, Const.SIDE_NORTH);
+		assertEquals(4, plan.length / ShapePlan.STRIDE);
+		for (int n = 0; n < 4; n++) {
+			assertEquals(Coordinate.pack(X + n, Y, Z), ShapePlan.getPosition(plan, n));
+			assertEquals(Const.SIDE_EAST, ShapePlan.getSide(plan, n));
+		}
+	}
+
+	@Test
+	public void sizeIsClamped() {
+		assertEquals(1, entries(ShapePlan.build(Config.ShapeMode.LINE, 0, CLICKED, Const.SIDE_TOP, false, Const.SIDE_NORTH)));
+		assertEquals(ShapePlan.MAX_SIZE,
+				entries(ShapePlan.build(Config.ShapeMode.LINE, 100, CLICKED, Const.SIDE_TOP, false, Const.SIDE_NORTH)));
+	}
+
+	@Test
+	public void shapeSizes() {
+		assertEquals(9, entries(ShapePlan.build(Config.ShapeMode.WALL, 3, CLICKED, Const.SIDE_NORTH, false, Const.SIDE_NORTH)));
+		assertEquals(16, entries(ShapePlan.build(Config.ShapeMode.FLOOR, 4, CLICKED, Const.SIDE_TOP, false, Const.SIDE_NORTH)));
+		assertEquals(26, entries(ShapePlan.build(Config.ShapeMode.BOX, 3, CLICKED, Const.SIDE_NORTH, false, Const.SIDE_NORTH)));
+		assertEquals(56, entries(ShapePlan.build(Config.ShapeMode.BOX, 4, CLICKED, Const.SIDE_TOP, false, Const.SIDE_EAST)));
+	}
+
+	@Test
+	public void everyPlacementIsAgainstAnEarlierBlock() {
+		for (Config.ShapeMode shape : Config.ShapeMode.values()) {
+			for (int size = 1; size <= 5; size++) {
+				for (int side = 0; side < 6; side++) {
+					long[] plan = ShapePlan.build(shape, size, CLICKED, side, false, Const.SIDE_SOUTH);
+					Set<Long> built = new HashSet<Long>();
+					built.add(CLICKED);
+					for (int n = 0; n < entries(plan); n++) {
+						assertTrue(shape + " " + size + " entry " + n, built.contains(ShapePlan.getPosition(plan, n)));
+						assertTrue(shape + " " + size + " entry " + n + " placed twice", built.add(placed(plan, n)));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void wallIsCentredAcrossTheFirstBlock() {
+		long[] plan = ShapePlan.build(Config.ShapeMode.WALL, 3, CLICKED, Const.SIDE_NORTH, false, Const.SIDE_NORTH);
+		assertEquals(Coordinate.pack(X, Y, Z - 1), placed(plan, 0));
+		int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+		for (int n = 0; n < entries(plan); n++) {
+			long p = placed(plan, n);
+			assertEquals(Z - 1, Coordinate.unpackZ(p));
+			minX = Math.min(minX, Coordinate.unpackX(p));
+			maxX = Math.max(maxX, Coordinate.unpackX(p));
+			minY = Math.min(minY, Coordinate.unpackY(p));
+			maxY = Math.max(maxY, Coordinate.unpackY(p));
+		}
+		assertEquals(X - 1, minX);
+		assertEquals(X + 1, maxX);
+		assertEquals(Y, minY);
+		assertEquals(Y + 2, maxY);
+	}
+
+	@Test
+	public void boxIsHollow() {
+		long[] plan = ShapePlan.build(Config.ShapeMode.BOX, 3, CLICKED, Const.SIDE_NORTH, false, Const.SIDE_NORTH);
+		long centre = Coordinate.pack(X, Y + 1, Z - 2);
+		for (int n = 0; n < entries(plan); n++) {
+			assertFalse(placed(plan, n) == centre);
+		}
+	}
+
+	@Test
+	public void replaceableFirstBlockIsReplaced() {
+		long[] plan = ShapePlan.build(Config.ShapeMode.LINE, 2, CLICKED, Const.SIDE_TOP, true, Const.SIDE_NORTH);
+		assertEquals(CLICKED, ShapePlan.getPosition(plan, 0));
+		assertEquals(Coordinate.pack(X, Y + 1, Z), placed(plan, 1));
+	}
+
+	@Test
+	public void filterKeepsOccupiedBlocksAsSupport() {
+		long[] plan = ShapePlan.build(Config.ShapeMode.LINE, 4, CLICKED, Const.SIDE_EAST, false, Const.SIDE_NORTH);
+		blocks.set(Coordinate.pack(X + 3, Y, Z), TestBlocks.STONE);
+		assertEquals(3, filter(plan, 10.0D));
+		assertEquals(Coordinate.pack(X + 1, Y, Z), placed(plan, 0));
+		assertEquals(Coordinate.pack(X + 2, Y, Z), placed(plan, 1));
+		assertEquals(Coordinate.pack(X + 4, Y, Z), placed(plan, 2));
+	}
+
+	@Test
+	public void filterDropsPlacementsOutOfReach() {
+		long[] plan = ShapePlan.build(Config.ShapeMode.LINE, 4, CLICKED, Const.SIDE_EAST, false, Const.SIDE_NORTH);
+		assertEquals(2, filter(plan, 2.5D));
+	}
+
+	@Test
+	public void filterReplacesReplaceableBlocks() {
+		long[] plan = ShapePlan.build(Config.ShapeMode.LINE, 2, CLICKED, Const.SIDE_EAST, false, Const.SIDE_NORTH);
+		blocks.set(Coordinate.pack(X + 1, Y, Z), TestBlocks.TALL_GRASS);
+		assertEquals(2, filter(plan, 10.0D));
+	}
+
+	@Test
+	public void filterAppliesTheSideCheck() {
+		final long rejected = Coordinate.pack(X + 1, Y, Z);
+		session = new HeadlessSession() {
+			@Override
+			protected boolean canPlaceOnSide(World theWorld, EntityPlayer entityPlayer, long pos, int side) {
+				return pos != rejected && super.canPlaceOnSide(theWorld, entityPlayer, pos, side);
+			}
+		};
+		session.setBlocks(blocks);
+		long[] plan = ShapePlan.build(Config.ShapeMode.LINE, 4, CLICKED, Const.SIDE_EAST, false, Const.SIDE_NORTH);
+		assertEquals(1, filter(plan, 10.0D)); // the rest are placed against the dropped placement
+		assertEquals(Coordinate.pack(X + 1, Y, Z), placed(plan, 0));
+	}
+
+	@Test
+	public void filterNeverPlacesAgainstABlockThatCanActivate() {
+		long[] plan = ShapePlan.build(Config.ShapeMode.LINE, 4, CLICKED, Const.SIDE_EAST, false, Const.SIDE_NORTH);
+		blocks.set(Coordinate.pack(X + 2, Y, Z), TestBlocks.CHEST);
+		assertEquals(1, filter(plan, 10.0D));
+		assertEquals(Coordinate.pack(X + 1, Y, Z), placed(plan, 0));
+
+		plan = ShapePlan.build(Config.ShapeMode.LINE, 4, CLICKED, Const.SIDE_EAST, false, Const.SIDE_NORTH);
+		blocks.set(CLICKED, TestBlocks.CHEST);
+		assertEquals(0, filter(plan, 10.0D));
+	}
+
+	@Test
+	public void filterStopsAtTheBuildHeight() {
+		long top = Coordinate.pack(X, 252, Z);
+		blocks.set(top, TestBlocks.STONE);
+		long[] plan = ShapePlan.build(Config.ShapeMode.LINE, 8, top, Const.SIDE_TOP, false, Const.SIDE_NORTH);
+		assertEquals(3, ShapePlan.filter(plan, blocks, session, null, null, X + 0.5D, 252.5D, Z + 0.5D, 10.0D)); // 253 to 255
+	}
+
+	private int filter(long[] plan, double reach) {
+		return ShapePlan.filter(plan, blocks, session, null, null, X + 0.5D, Y + 0.5D, Z + 0.5D, reach);
+	}
+
+	private static int entries(long[] plan) {
+		return plan.length / ShapePlan.STRIDE;
+	}
+
+	/** @return the packed position a plan entry places its block at */
+	private static long placed(long[] plan, int entry) {
+		return Coordinate.adjacent(ShapePlan.getPosition(plan, entry), ShapePlan.getSide(plan, entry));
+	}
+}
\ No newline at end of file
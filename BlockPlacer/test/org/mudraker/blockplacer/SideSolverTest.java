@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks every {@link SideSolver} table entry against the retry loops it replaced, which asked
+ * the world about one side at a time. The loops below are the 1.6.4 BlockPlacer ones with the
+ * world query swapped for a lookup in the side validity mask.
+ *
+ * @author MudRaker
+ */
+public class SideSolverTest {
+
+	/** Player facings the solver is used with - NESW only */
+	private static final int[] FACINGS = new int[] {Const.SIDE_NORTH, Const.SIDE_SOUTH, Const.SIDE_WEST, Const.SIDE_EAST};
+
+	@Test
+	public void adjustMatchesTheRetryLoop() {
+		for (int facing : FACINGS) {
+			for (int side = 0; side < 6; side++) {
+				for (int mask = 0; mask < SideSolver.MASK_COUNT; mask++) {
+					assertEquals(describe(facing, side, mask) + " forward",
+							adjustLoop(facing, side, true, mask), SideSolver.adjust(facing, side, true, mask));
+					assertEquals(describe(facing, side, mask) + " backward",
+							adjustLoop(facing, side, false, mask), SideSolver.adjust(facing, side, false, mask));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void rotateMatchesTheRetryLoop() {
+		for (int pitch = 0; pitch < 3; pitch++) {
+			for (int key = 0; key < 4; key++) {
+				for (int facing : FACINGS) {
+					for (int side = 0; side < 6; side++) {
+						for (int mask = 0; mask < SideSolver.MASK_COUNT; mask++) {
+							assertEquals(describe(facing, side, mask) + " pitch " + pitch + " key " + key,
+									rotateLoop(pitch, facing, side, key, mask), SideSolver.rotate(pitch, facing, side, key, mask));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void defaultPlaceMatchesTheRetryLoop() {
+		for (int pitch = 0; pitch < 3; pitch++) {
+			for (int facing : FACINGS) {
+				for (int sideHit = 0; sideHit < 6; sideHit++) {
+					for (int mask = 0; mask < SideSolver.MASK_COUNT; mask++) {
+						assertEquals(describe(facing, sideHit, mask) + " pitch " + pitch,
+								defaultLoop(pitch, facing, sideHit, mask), SideSolver.defaultPlace(pitch, facing, sideHit, mask));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void mouseShiftMatchesTheSingleCheck() {
+		for (int facing : FACINGS) {
+			for (int side = 0; side < 6; side++) {
+				for (int relDir = 0; relDir < 6; relDir++) {
+					for (int mask = 0; mask < SideSolver.MASK_COUNT; mask++) {
+						int newSide = Const.REL_DIR_TO_SIDE[facing][relDir];
+						int expected = (newSide != side && SideSolver.isValid(mask, newSide)) ? newSide : -1;
+						assertEquals(describe(facing, side, mask) + " relDir " + relDir,
+								expected, SideSolver.mouseShift(facing, side, relDir, mask));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void adjustVisitsEverySideInTurn() {
+		for (int facing : FACINGS) {
+			int seen = 0;
+			int side = Const.SIDE_TOP;
+			for (int n = 0; n < 6; n++) {
+				seen |= 1 << side;
+				side = SideSolver.adjust(facing, side, true, SideSolver.ALL_SIDES);
+			}
+			assertEquals(SideSolver.ALL_SIDES, seen);
+			assertEquals(Const.SIDE_TOP, side);
+		}
+	}
+
+	@Test
+	public void decisionsOnlyChooseValidSides() {
+		for (int facing : FACINGS) {
+			for (int side = 0; side < 6; side++) {
+				for (int mask = 0; mask < SideSolver.MASK_COUNT; mask++) {
+					int adjusted = SideSolver.adjust(facing, side, true, mask);
+					assertTrue(adjusted < 0 || (adjusted != side && SideSolver.isValid(mask, adjusted)));
+					int start = SideSolver.defaultPlace(Const.PITCH_LEVEL, facing, side, mask);
+					assertTrue(start < 0 || SideSolver.isValid(mask, start));
+					assertTrue(mask != SideSolver.NO_SIDES || start < 0);
+				}
+			}
+		}
+	}
+
+	/** BlockPlacer.doAdjustPosition */
+	private static int adjustLoop(int facing, int side, boolean forward, int mask) {
+		int count = 0;
+		int forwardOrBack = (forward) ? 0 : 1;
+		int relativeDirection = Const.SIDE_TO_REL_DIR[facing][side];
+		int newRelDir = Const.REL_DIR_ROTATE[forwardOrBack][relativeDirection];
+		int newSide = Const.REL_DIR_TO_SIDE[facing][newRelDir];
+		while (!canPlaceOnThisSide(mask, newSide) && ++count < 7) {
+			relativeDirection = Const.SIDE_TO_REL_DIR[facing][newSide];
+			newRelDir = Const.REL_DIR_ROTATE[forwardOrBack][relativeDirection];
+			newSide = Const.REL_DIR_TO_SIDE[facing][newRelDir];
+		}
+		return (newSide != side && count < 7) ? newSide : -1;
+	}
+
+	/** BlockPlacer.doRotatePosition, failing where the original asserted */
+	private static int rotateLoop(int pitch, int direction, int side, int rotateDirection, int mask) {
+		int count = 0;
+		int plane = Const.PLANE_TRANSLATE[pitch][rotateDirection][direction];
+		if (plane == -1) return -1;
+		int newSide = Const.PLANE_ROTATE[plane][side];
+		if (newSide < 0) {
+			newSide = Const.REL_DIR_TO_SIDE[direction][Const.PLANE_DEFAULT_REL_DIR[pitch]];
+		}
+		while (newSide != side && !canPlaceOnThisSide(mask, newSide) && ++count < 5) {
+			newSide = Const.PLANE_ROTATE[plane][newSide];
+			if (newSide < 0) return -1;
+		}
+		return (newSide != side && count < 5) ? newSide : -1;
+	}
+
+	/** BlockPlacer.setDefaultPlace, falling back to a forward adjust from the side hit */
+	private static int defaultLoop(int pitch, int facing, int sideHit, int mask) {
+		boolean isValid = false;
+		int placeSide = sideHit;
+		int defaultDir;
+		int relativeDirection = Const.SIDE_TO_REL_DIR[facing][sideHit];
+		for (int attempt = 0; attempt < Const.DEFAULT_PLACE.length && !isValid; attempt++) {
+			if ((defaultDir = Const.DEFAULT_PLACE[attempt][pitch][relativeDirection]) < 0)
+				break;
+			placeSide = Const.REL_DIR_TO_SIDE[facing][defaultDir];
+			isValid = canPlaceOnThisSide(mask, placeSide);
+		}
+		return isValid ? placeSide : adjustLoop(facing, sideHit, true, mask);
+	}
+
+	/** Stands in for the world query of the original loops */
+	private static boolean canPlaceOnThisSide(int mask, int side) {
+		return (mask & (1 << side)) != 0;
+	}
+
+	private static String describe(int facing, int side, int mask) {
+		return "facing " + facing + " side " + side + " mask " + Integer.toBinaryString(mask);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2014  MudRaker
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ */
+package org.mudraker.blockplacer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sparse block source for the unit tests - every position not set is air.
+ * <p>Tall grass is replaceable, as in vanilla.</p>
+ *
+ * @author MudRaker
+ */
+class TestBlocks implements BlockSource {
+
+	// Vanilla block IDs used by the tests
+	static final int STONE = 1;
+	static final int TALL_GRASS = 31;
+	static final int CHEST = 54; // can activate
+
+	private final Map<Long, Integer> ids = new HashMap<Long, Integer>();
+
+	/**
+	 * Set a block.
+	 * @param position is the packed position
+	 * @param blockId is the block ID, 0 for air
+	 * @return this source
+	 */
+	TestBlocks set(long position, int blockId) {
+		if (blockId == 0) {
+			ids.remove(position);
+		} else {
+			ids.put(position, blockId);
+		}
+		return this;
+	}
+
+	@Override
+	public int getBlockId(int x, int y, int z) {
+		Integer id = ids.get(Coordinate.pack(x, y, z));
+		return (id == null) ? 0 : id.intValue();
+	}
+
+	@Override
+	public int getBlockMetadata(int x, int y, int z) {
+		return 0;
+	}
+
+	@Override
+	public boolean isReplaceable(int x, int y, int z) {
+		return getBlockId(x, y, z) == TALL_GRASS;
+	}
+}
\ No newline at end of file